@@ -0,0 +1,100 @@
+package com.project.employee.benchmark;
+
+import com.project.employee.entity.CustomerEntity;
+import com.project.employee.entity.EmployeeEntity;
+import com.project.employee.entity.OrderEntity;
+import com.project.employee.entity.OrderLineEntity;
+import com.project.employee.entity.ProductEntity;
+import com.project.employee.enums.OrderStatus;
+import com.project.employee.repository.FilterQueryCache;
+import com.project.employee.specification.FilterQuery;
+import com.project.employee.specification.OrderSpecification;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class FilterQueryBenchmark {
+
+    private static final Sort SORT = Sort.by(Sort.Order.desc("createdDate"), Sort.Order.asc("id"));
+    private static final LocalDateTime CREATED_DATE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Param({"status", "status_product", "all"})
+    private String shape;
+
+    private SessionFactory sessionFactory;
+    private Session session;
+    private FilterQueryCache cache;
+    private LocalDateTime createdDate;
+    private Long productId;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(CustomerEntity.class)
+                .addAnnotatedClass(EmployeeEntity.class)
+                .addAnnotatedClass(OrderEntity.class)
+                .addAnnotatedClass(OrderLineEntity.class)
+                .addAnnotatedClass(ProductEntity.class)
+                .setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect")
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:filter-benchmark;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .buildSessionFactory();
+        session = sessionFactory.openSession();
+        session.setDefaultReadOnly(true);
+        cache = new FilterQueryCache(sessionFactory.getMetamodel().managedType(OrderEntity.class),
+                "OrderEntity", "id");
+        createdDate = "all".equals(shape) ? CREATED_DATE : null;
+        productId = "status".equals(shape) ? null : 1L;
+    }
+
+    @TearDown
+    public void tearDown() {
+        session.close();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<Long> specificationPath() {
+        Specification<OrderEntity> spec = OrderSpecification.filter(createdDate, OrderStatus.NEW, productId);
+        CriteriaBuilder cb = session.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<OrderEntity> root = query.from(OrderEntity.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root.get("id"));
+        query.orderBy(QueryUtils.toOrders(SORT, root, cb));
+        return session.createQuery(query)
+                .setFirstResult(20)
+                .setMaxResults(21)
+                .getResultList();
+    }
+
+    @Benchmark
+    public List<Long> shapeCachedPath() {
+        FilterQuery<OrderEntity> filter = OrderSpecification.query(createdDate, OrderStatus.NEW, productId);
+        return cache.create(session, cache.selectIds(filter, SORT), Long.class, filter)
+                .setFirstResult(20)
+                .setMaxResults(21)
+                .getResultList();
+    }
+}
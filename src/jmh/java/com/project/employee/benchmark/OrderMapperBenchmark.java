@@ -0,0 +1,58 @@
+package com.project.employee.benchmark;
+
+import com.project.employee.dto.OrderResponseDto;
+import com.project.employee.entity.CustomerEntity;
+import com.project.employee.entity.OrderEntity;
+import com.project.employee.entity.ProductEntity;
+import com.project.employee.enums.OrderStatus;
+import com.project.employee.mappers.OrderMapper;
+import com.project.employee.mappers.OrderMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMapperBenchmark {
+
+    @Param({"1", "10", "100"})
+    int products;
+
+    private final OrderMapper mapper = new OrderMapperImpl();
+    private OrderEntity order;
+
+    @Setup
+    public void setUp() {
+        CustomerEntity customer = new CustomerEntity();
+        customer.setId(1L);
+        customer.setFirstName("Evgeny");
+        customer.setLastName("Lim");
+        customer.setEmail("test@gmail.com");
+        customer.setPhoneNumber("+79281112233");
+
+        order = new OrderEntity();
+        order.setId(1L);
+        order.setOrderStatus(OrderStatus.NEW);
+        order.setCreatedDate(LocalDateTime.of(2025, 1, 1, 10, 0));
+        order.setCustomer(customer);
+        for (long i = 1; i <= products; i++) {
+            ProductEntity product = new ProductEntity();
+            product.setId(i);
+            product.setName("Product " + i);
+            product.setDescription("description " + i);
+            product.setPrice(BigDecimal.valueOf(10 + i));
+            order.addProduct(product);
+        }
+    }
+
+    @Benchmark
+    public OrderResponseDto toResponseDto() {
+        return mapper.toResponseDto(order);
+    }
+}
@@ -0,0 +1,124 @@
+package com.project.employee.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.project.employee.dto.OrderResponseDto;
+import com.project.employee.dto.PageResponse;
+import com.project.employee.enums.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageResponseEncodingBenchmark {
+
+    private static final int PRODUCTS_PER_ORDER = 5;
+
+    @Param({"1", "3", "10", "100"})
+    int pageSize;
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    @Param({"identity", "gzip"})
+    String encoding;
+
+    private ObjectWriter writer;
+    private PageResponse<OrderResponseDto> page;
+
+    @Setup
+    public void setUp() {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        writer = new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writerFor(PageResponse.class);
+
+        List<OrderResponseDto> content = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++) {
+            content.add(order(i));
+        }
+        page = PageResponse.fromPage(new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000));
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireSize {
+        public long wireBytes;
+        public long encodings;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            wireBytes = 0;
+            encodings = 0;
+        }
+    }
+
+    private static OrderResponseDto order(long id) {
+        OrderResponseDto.CustomerInfo customerInfo = new OrderResponseDto.CustomerInfo();
+        customerInfo.setFirstName("Name" + id);
+        customerInfo.setLastName("Surname" + id);
+        customerInfo.setEmail("customer" + id + "@gmail.com");
+        customerInfo.setPhoneNumber("+7928" + (1_000_000 + id));
+
+        List<OrderResponseDto.ProductInfo> products = new ArrayList<>();
+        for (long i = 1; i <= PRODUCTS_PER_ORDER; i++) {
+            OrderResponseDto.ProductInfo productInfo = new OrderResponseDto.ProductInfo();
+            productInfo.setId(id * 10 + i);
+            productInfo.setName("Product " + (id * 10 + i));
+            productInfo.setDescription("description " + i);
+            productInfo.setPrice(BigDecimal.valueOf(1000 + id * 10 + i, 2));
+            products.add(productInfo);
+        }
+
+        OrderResponseDto dto = new OrderResponseDto();
+        dto.setId(id);
+        dto.setOrderStatus(OrderStatus.NEW);
+        dto.setCreatedDate(LocalDateTime.of(2025, 1, 1, 10, 0).plusMinutes(id));
+        dto.setCustomerInfo(customerInfo);
+        dto.setProductInfo(products);
+        return dto;
+    }
+
+    @Benchmark
+    public byte[] encode(WireSize wireSize) throws IOException {
+        byte[] encoded = encodePage();
+        wireSize.wireBytes += encoded.length;
+        wireSize.encodings++;
+        return encoded;
+    }
+
+    private byte[] encodePage() throws IOException {
+        if ("identity".equals(encoding)) {
+            return writer.writeValueAsBytes(page);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            writer.writeValue(gzip, page);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,79 @@
+package com.project.employee.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.project.employee.dto.OrderResponseDto;
+import com.project.employee.dto.PageResponse;
+import com.project.employee.enums.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageResponseSerializationBenchmark {
+
+    @Param({"10", "100"})
+    int pageSize;
+
+    private ObjectWriter writer;
+    private PageResponse<OrderResponseDto> page;
+
+    @Setup
+    public void setUp() {
+        writer = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writerFor(PageResponse.class);
+
+        List<OrderResponseDto> content = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++) {
+            content.add(order(i));
+        }
+        page = PageResponse.fromPage(new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000));
+    }
+
+    private static OrderResponseDto order(long id) {
+        OrderResponseDto.CustomerInfo customerInfo = new OrderResponseDto.CustomerInfo();
+        customerInfo.setFirstName("Evgeny");
+        customerInfo.setLastName("Lim");
+        customerInfo.setEmail("test@gmail.com");
+        customerInfo.setPhoneNumber("+79281112233");
+
+        List<OrderResponseDto.ProductInfo> products = new ArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            OrderResponseDto.ProductInfo productInfo = new OrderResponseDto.ProductInfo();
+            productInfo.setId(i);
+            productInfo.setName("Product " + i);
+            productInfo.setDescription("description " + i);
+            productInfo.setPrice(BigDecimal.valueOf(10 + i));
+            products.add(productInfo);
+        }
+
+        OrderResponseDto dto = new OrderResponseDto();
+        dto.setId(id);
+        dto.setOrderStatus(OrderStatus.NEW);
+        dto.setCreatedDate(LocalDateTime.of(2025, 1, 1, 10, 0));
+        dto.setCustomerInfo(customerInfo);
+        dto.setProductInfo(products);
+        return dto;
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,24 @@
+package com.project.employee.benchmark;
+
+import com.project.employee.utility.PageableAssembler;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Pageable;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageableAssemblerBenchmark {
+
+    private final PageableAssembler assembler = new PageableAssembler();
+    private final String[] sortParams = {"createdDate,desc", "id,asc"};
+
+    @Benchmark
+    public Pageable from() {
+        return assembler.from(3, 20, sortParams);
+    }
+}
@@ -0,0 +1,71 @@
+package com.project.employee.benchmark;
+
+import com.project.employee.entity.CustomerEntity;
+import com.project.employee.entity.EmployeeEntity;
+import com.project.employee.entity.OrderEntity;
+import com.project.employee.entity.OrderLineEntity;
+import com.project.employee.entity.ProductEntity;
+import com.project.employee.enums.OrderStatus;
+import com.project.employee.specification.OrderSpecification;
+import com.project.employee.specification.ProductSpecification;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecificationBenchmark {
+
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder cb;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(CustomerEntity.class)
+                .addAnnotatedClass(EmployeeEntity.class)
+                .addAnnotatedClass(OrderEntity.class)
+                .addAnnotatedClass(OrderLineEntity.class)
+                .addAnnotatedClass(ProductEntity.class)
+                .setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect")
+                .setProperty("hibernate.boot.allow_jdbc_metadata_access", "false")
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:benchmark")
+                .setProperty("hibernate.hbm2ddl.auto", "none")
+                .buildSessionFactory();
+        cb = sessionFactory.getCriteriaBuilder();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Predicate orderFilter() {
+        return toPredicate(OrderSpecification.filter(
+                LocalDateTime.of(2025, 1, 1, 0, 0), OrderStatus.NEW, 1L), OrderEntity.class);
+    }
+
+    @Benchmark
+    public Predicate productFilter() {
+        return toPredicate(ProductSpecification.filter(
+                "MacBook", "laptop", BigDecimal.valueOf(100000)), ProductEntity.class);
+    }
+
+    private <T> Predicate toPredicate(Specification<T> spec, Class<T> type) {
+        CriteriaQuery<T> query = cb.createQuery(type);
+        return spec.toPredicate(query.from(type), query, cb);
+    }
+}
@@ -1,10 +1,17 @@
 package com.project.employee;
 
 
+import com.project.employee.repository.BaseRepositoryImpl;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableJpaRepositories(repositoryBaseClass = BaseRepositoryImpl.class)
+@EnableAsync
+@EnableScheduling
 public class EmployeeApplication {
 
 	public static void main(String[] args) {
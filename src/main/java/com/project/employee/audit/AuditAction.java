@@ -0,0 +1,7 @@
+package com.project.employee.audit;
+
+public enum AuditAction {
+    CREATE,
+    UPDATE,
+    DELETE
+}
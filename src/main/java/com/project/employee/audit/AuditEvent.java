@@ -0,0 +1,15 @@
+package com.project.employee.audit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record AuditEvent(
+        String entityType,
+        Long entityId,
+        AuditAction action,
+        List<String> changedFields,
+        String actor,
+        String claimedActor,
+        LocalDateTime occurredAt
+) {
+}
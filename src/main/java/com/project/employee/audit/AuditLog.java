@@ -0,0 +1,228 @@
+package com.project.employee.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.security.Principal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+@Component
+@Slf4j
+public class AuditLog implements SmartLifecycle {
+    public static final String ACTOR_HEADER = "X-Actor";
+    private static final String SYSTEM_ACTOR = "system";
+    private static final String ANONYMOUS_ACTOR = "anonymous";
+    private static final int ACTOR_LENGTH = 100;
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final String INSERT_SQL = """
+            INSERT INTO audit_events (entity_type, entity_id, action, changed_fields, actor, claimed_actor, occurred_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MpscRingBuffer<AuditEvent> buffer;
+    private final boolean enabled;
+    private final BackpressurePolicy policy;
+    private final double sampleRate;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditLog(JdbcTemplate jdbcTemplate,
+                    MeterRegistry meterRegistry,
+                    @Value("${app.audit.enabled:true}") boolean enabled,
+                    @Value("${app.audit.buffer-size:8192}") int bufferSize,
+                    @Value("${app.audit.batch-size:500}") int batchSize,
+                    @Value("${app.audit.flush-interval:200ms}") Duration flushInterval,
+                    @Value("${app.audit.policy:DROP}") BackpressurePolicy policy,
+                    @Value("${app.audit.sample-rate:0.1}") double sampleRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new MpscRingBuffer<>(bufferSize);
+        this.enabled = enabled;
+        this.policy = policy;
+        this.sampleRate = sampleRate;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.written = meterRegistry.counter("app.audit.events", "result", "written");
+        this.dropped = meterRegistry.counter("app.audit.events", "result", "dropped");
+        this.failed = meterRegistry.counter("app.audit.events", "result", "failed");
+        meterRegistry.gauge("app.audit.buffer.size", buffer, MpscRingBuffer::size);
+    }
+
+    public void record(String entityType, Long entityId, AuditAction action, List<String> changedFields) {
+        if (!enabled) {
+            return;
+        }
+        HttpServletRequest request = currentRequest();
+        submit(List.of(new AuditEvent(entityType, entityId, action, List.copyOf(changedFields),
+                actor(request), claimedActor(request), LocalDateTime.now())));
+    }
+
+    public void recordAll(String entityType, Collection<Long> entityIds, AuditAction action,
+                          List<String> changedFields) {
+        if (!enabled || entityIds.isEmpty()) {
+            return;
+        }
+        HttpServletRequest request = currentRequest();
+        String actor = actor(request);
+        String claimedActor = claimedActor(request);
+        List<String> fields = List.copyOf(changedFields);
+        LocalDateTime occurredAt = LocalDateTime.now();
+        List<AuditEvent> events = new ArrayList<>(entityIds.size());
+        for (Long entityId : entityIds) {
+            events.add(new AuditEvent(entityType, entityId, action, fields, actor, claimedActor, occurredAt));
+        }
+        submit(events);
+    }
+
+    private void submit(List<AuditEvent> events) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    events.forEach(AuditLog.this::enqueue);
+                }
+            });
+            return;
+        }
+        events.forEach(this::enqueue);
+    }
+
+    private void enqueue(AuditEvent event) {
+        switch (policy) {
+            case BLOCK -> {
+                while (!buffer.offer(event)) {
+                    if (!running) {
+                        dropped.increment();
+                        return;
+                    }
+                    LockSupport.unpark(writer);
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                }
+            }
+            case SAMPLE -> {
+                boolean underPressure = buffer.size() >= buffer.capacity() * 3 / 4;
+                if (underPressure && ThreadLocalRandom.current().nextDouble() >= sampleRate
+                        || !buffer.offer(event)) {
+                    dropped.increment();
+                }
+            }
+            case DROP -> {
+                if (!buffer.offer(event)) {
+                    dropped.increment();
+                }
+            }
+        }
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest()
+                : null;
+    }
+
+    private static String actor(HttpServletRequest request) {
+        if (request == null) {
+            return SYSTEM_ACTOR;
+        }
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? truncate(principal.getName()) : ANONYMOUS_ACTOR;
+    }
+
+    private static String claimedActor(HttpServletRequest request) {
+        String claimed = request == null ? null : request.getHeader(ACTOR_HEADER);
+        return claimed == null || claimed.isBlank() ? null : truncate(claimed.trim());
+    }
+
+    private static String truncate(String value) {
+        return value.length() > ACTOR_LENGTH ? value.substring(0, ACTOR_LENGTH) : value;
+    }
+
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                if (!running) {
+                    break;
+                }
+                LockSupport.parkNanos(flushIntervalNanos);
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                ps.setString(1, event.entityType());
+                ps.setObject(2, event.entityId());
+                ps.setString(3, event.action().name());
+                ps.setString(4, String.join(",", event.changedFields()));
+                ps.setString(5, event.actor());
+                ps.setString(6, event.claimedActor());
+                ps.setTimestamp(7, Timestamp.valueOf(event.occurredAt()));
+            });
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.error("Не удалось записать {} событий аудита: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Журнал аудита запущен: буфер={}, политика={}", buffer.capacity(), policy);
+    }
+
+    @Override
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Журнал аудита остановлен, в буфере осталось событий: {}", buffer.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
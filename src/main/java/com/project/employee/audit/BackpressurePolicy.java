@@ -0,0 +1,7 @@
+package com.project.employee.audit;
+
+public enum BackpressurePolicy {
+    BLOCK,
+    DROP,
+    SAMPLE
+}
@@ -0,0 +1,42 @@
+package com.project.employee.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.employee.idempotency.IdempotencyKeyFilter;
+import com.project.employee.idempotency.IdempotencyStore;
+import com.project.employee.idempotency.InMemoryIdempotencyStore;
+import com.project.employee.idempotency.JdbcIdempotencyStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "app.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(@Value("${app.idempotency.max-entries:10000}") int maxEntries,
+                                                     @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                                                     @Value("${app.idempotency.lock-timeout:30s}") Duration lockTimeout) {
+        return new InMemoryIdempotencyStore(maxEntries, ttl, lockTimeout);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.idempotency.store", havingValue = "jdbc")
+    public IdempotencyStore jdbcIdempotencyStore(JdbcTemplate jdbcTemplate,
+                                                 @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                                                 @Value("${app.idempotency.lock-timeout:30s}") Duration lockTimeout) {
+        return new JdbcIdempotencyStore(jdbcTemplate, ttl, lockTimeout);
+    }
+
+    @Bean
+    public IdempotencyKeyFilter idempotencyKeyFilter(IdempotencyStore idempotencyStore, ObjectMapper objectMapper,
+                                                     MeterRegistry meterRegistry) {
+        return new IdempotencyKeyFilter(idempotencyStore, objectMapper, meterRegistry);
+    }
+}
@@ -1,9 +1,12 @@
 package com.project.employee.controller;
 
+import com.project.employee.config.BinaryFormatsConfig;
 import com.project.employee.dto.CustomerRequestDto;
 import com.project.employee.dto.CustomerResponseDto;
+import com.project.employee.dto.CustomerStatsDto;
 import com.project.employee.dto.PageResponse;
 import com.project.employee.service.CustomerService;
+import com.project.employee.service.OrderTotalsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -12,11 +15,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @Controller
 @RequiredArgsConstructor
@@ -24,6 +30,7 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Клиенты", description = "API для управления клиентами")
 public class CustomerController {
     private final CustomerService customerService;
+    private final OrderTotalsService orderTotalsService;
 
     @PostMapping("/customers")
     @Operation(summary = "Добавить клиента", description = "Позволяет добавить нового клиента")
@@ -35,36 +42,53 @@ public class CustomerController {
         return new ResponseEntity<>(responseDto, HttpStatus.CREATED);
     }
 
-    @GetMapping("/customers")
+    @GetMapping(value = "/customers", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatsConfig.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Показать всех клиентов", description = "Возвращает список всех клиентов")
     public ResponseEntity<PageResponse<CustomerResponseDto>> getCustomers(
             @RequestParam(required = false) String firstName,
             @RequestParam(required = false) String lastName,
             @RequestParam(required = false) String emailLike,
+            @RequestParam(defaultValue = "false") boolean emailIgnoreCase,
             @RequestParam(required = false) String phoneNumber,
+            @RequestParam(defaultValue = "true") boolean withTotal,
             @PageableDefault(page = 0, size = 10, sort = "firstName", direction = Sort.Direction.ASC)
             Pageable pageable
     ) {
         log.info("Получение всех клиентов");
         PageResponse<CustomerResponseDto> response = customerService.getAllCustomers(
-                firstName, lastName, emailLike, phoneNumber, pageable
+                firstName, lastName, emailLike, emailIgnoreCase, phoneNumber, withTotal, pageable
         );
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/customers/{id}")
     @Operation(summary = "Показать клиента по его ID", description = "Возвращает информацию о клиенте по его ID")
-    public ResponseEntity<CustomerResponseDto> getCustomerById(@PathVariable("id") Long id) {
+    public ResponseEntity<CustomerResponseDto> getCustomerById(@PathVariable("id") Long id,
+                                                               WebRequest request) {
         log.info("Получение клиента по ID: {}", id);
-        return new ResponseEntity<>(customerService.getCustomerById(id), HttpStatus.OK);
+        String eTag = customerService.getCustomerETag(id);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(customerService.getCustomerById(id));
+    }
+
+    @GetMapping("/customers/{id}/stats")
+    @Operation(summary = "Показать статистику клиента",
+            description = "Возвращает количество заказов и выручку клиента по предрассчитанным итогам")
+    public ResponseEntity<CustomerStatsDto> getCustomerStats(@PathVariable("id") Long id) {
+        log.info("Получение статистики клиента с ID: {}", id);
+        return ResponseEntity.ok(orderTotalsService.getCustomerStats(id));
     }
 
     @DeleteMapping("/customers/{id}")
     @Operation(summary = "Удалить клиента по его ID",
                 description = "Позволяет удалить клиента по его ID")
-    public ResponseEntity<Long> removeCustomer(@PathVariable("id") Long id) {
+    public ResponseEntity<Long> removeCustomer(@PathVariable("id") Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.warn("Запрос на удаление клиента с ID: {}", id);
-        long removedCustomer = customerService.removeCustomer(id);
+        long removedCustomer = customerService.removeCustomer(id, ifMatch);
         log.info("Сотрудник с ID {} успешно удален", id);
         return ResponseEntity.ok(removedCustomer);
     }
@@ -73,9 +97,10 @@ public class CustomerController {
     @Operation(summary = "Обновить данные клиента по его ID",
                 description = "Позволяет удалить клиента по его ID")
     public ResponseEntity<CustomerResponseDto> updateCustomer(@PathVariable("id") Long id,
-                                                              @Valid @RequestBody CustomerRequestDto requestDto) {
+                                                              @Valid @RequestBody CustomerRequestDto requestDto,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.warn("Запрос на изменение данных клиента с ID: {}", id);
-        CustomerResponseDto updatedCustomerEntity = customerService.updateCustomer(id, requestDto);
+        CustomerResponseDto updatedCustomerEntity = customerService.updateCustomer(id, requestDto, ifMatch);
         log.info("Данные клиента с ID: {} успешно изменены", id);
         return new ResponseEntity<>(updatedCustomerEntity, HttpStatus.OK);
     }
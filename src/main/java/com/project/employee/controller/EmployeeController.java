@@ -1,5 +1,6 @@
 package com.project.employee.controller;
 
+import com.project.employee.config.BinaryFormatsConfig;
 import com.project.employee.dto.EmployeeRequestDto;
 import com.project.employee.dto.EmployeeResponseDto;
 import com.project.employee.dto.PageResponse;
@@ -13,9 +14,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequiredArgsConstructor
@@ -35,19 +39,22 @@ public class EmployeeController {
         return new ResponseEntity<>(newEmployeeEntity, HttpStatus.CREATED);
     }
 
-    @GetMapping("/employees")
+    @GetMapping(value = "/employees", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatsConfig.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Получить всех сотрудников", description = "Возвращает список всех сотрудников")
     public ResponseEntity<PageResponse<EmployeeResponseDto>> getEmployees(
             @RequestParam(required = false) String firstName,
             @RequestParam(required = false) String lastName,
             @RequestParam(required = false) EmployeeRole role,
             @RequestParam(required = false) String emailLike,
+            @RequestParam(defaultValue = "false") boolean emailIgnoreCase,
+            @RequestParam(defaultValue = "true") boolean withTotal,
             @PageableDefault(page = 0, size = 10, sort = "lastName", direction = Sort.Direction.ASC)
             Pageable pageable
             ) {
         log.info("Получение всех сотрудников");
         PageResponse<EmployeeResponseDto> response = employeeService.getEmployees(
-                firstName, lastName, role, emailLike, pageable
+                firstName, lastName, role, emailLike, emailIgnoreCase, withTotal, pageable
         );
         return ResponseEntity.ok(response);
     }
@@ -55,17 +62,23 @@ public class EmployeeController {
     @GetMapping("/employees/{id}")
     @Operation(summary = "Получить информацию о сотруднике",
             description = "Позволяет получить информацию о сотруднику по его ID")
-    public ResponseEntity<EmployeeResponseDto> getEmployeeById(@PathVariable("id") Long id) {
+    public ResponseEntity<EmployeeResponseDto> getEmployeeById(@PathVariable("id") Long id,
+                                                               WebRequest request) {
         log.info("Получение сотрудника по ID: {}", id);
-        return new ResponseEntity<>(employeeService.getEmployeeById(id), HttpStatus.OK);
+        String eTag = employeeService.getEmployeeETag(id);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(employeeService.getEmployeeById(id));
     }
 
     @DeleteMapping("/employees/{id}")
     @Operation(summary = "Удалить сотрудника",
             description = "Позволяет удалить сотрудника по его ID")
-    public ResponseEntity<Long> removeEmployee(@PathVariable("id") Long id) {
+    public ResponseEntity<Long> removeEmployee(@PathVariable("id") Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.warn("Запрос на удаление сотрудника с ID: {}", id);
-        Long removedEmployeeId = employeeService.removeEmployee(id);
+        Long removedEmployeeId = employeeService.removeEmployee(id, ifMatch);
         log.info("Сотрудник с ID {} успешно удален", id);
         return ResponseEntity.ok(removedEmployeeId);
     }
@@ -75,9 +88,10 @@ public class EmployeeController {
             description = "Позволяет обновить информацию о сотруднику по его ID")
     public ResponseEntity<EmployeeResponseDto> updateEmployee(@PathVariable("id") Long id,
                                                               @Valid
-                                                              @RequestBody EmployeeRequestDto employeeRequestDto) {
+                                                              @RequestBody EmployeeRequestDto employeeRequestDto,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.warn("Запрос на изменение данных сотрудника с ID: {}", id);
-        EmployeeResponseDto updatedEmployeeEntity = employeeService.updateEmployee(id, employeeRequestDto);
+        EmployeeResponseDto updatedEmployeeEntity = employeeService.updateEmployee(id, employeeRequestDto, ifMatch);
         log.info("Данные сотрудника с ID {} успешно изменены", id);
         return new ResponseEntity<>(updatedEmployeeEntity, HttpStatus.OK);
     }
@@ -1,33 +1,56 @@
 package com.project.employee.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.employee.config.BinaryFormatsConfig;
+import com.project.employee.dto.OrderBatchResultDto;
+import com.project.employee.dto.OrderLineRequestDto;
 import com.project.employee.dto.OrderRequestDto;
 import com.project.employee.dto.OrderResponseDto;
+import com.project.employee.dto.OrderStatsDto;
+import com.project.employee.dto.OrderStatusTransitionRequestDto;
+import com.project.employee.dto.OrderStatusTransitionResultDto;
+import com.project.employee.dto.OrderSummaryDto;
 import com.project.employee.dto.PageResponse;
 import com.project.employee.dto.ProductResponseDto;
 import com.project.employee.entity.ProductEntity;
 import com.project.employee.enums.OrderStatus;
 import com.project.employee.service.OrderService;
+import com.project.employee.service.OrderTotalsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @Controller
 @RequiredArgsConstructor
 @Slf4j
+@Validated
 @Tag(name = "Orders", description = "API для управления заказами")
 public class OrderController {
     private final OrderService orderService;
+    private final OrderTotalsService orderTotalsService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/orders")
     @Operation(summary = "Создать новый заказ", description = "Создает новый заказ")
@@ -38,46 +61,172 @@ public class OrderController {
         return new ResponseEntity<>(responseDto, HttpStatus.CREATED);
     }
 
+    @PostMapping("/orders/batch")
+    @Operation(summary = "Создать заказы пакетом",
+            description = "Создает список заказов за один запрос и возвращает результат по каждому элементу")
+    public ResponseEntity<List<OrderBatchResultDto>> addOrders(@RequestBody List<OrderRequestDto> requestDtos) {
+        log.info("Получен запрос на пакетное создание заказов");
+        List<OrderBatchResultDto> results = orderService.addOrders(requestDtos);
+        boolean allCreated = results.stream().allMatch(OrderBatchResultDto::isCreated);
+        return new ResponseEntity<>(results, allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS);
+    }
+
+    @PostMapping("/orders/status-transitions")
+    @Operation(summary = "Сменить статус заказов пакетно",
+            description = "Переводит все заказы в статусе from, подходящие под фильтр, в статус to " +
+                    "пачками по 500 заказов: каждая пачка меняется одним UPDATE с условием на статус from, " +
+                    "затем пересчитываются итоги и пишется аудит по каждому заказу. " +
+                    "Возвращает количество измененных заказов")
+    public ResponseEntity<OrderStatusTransitionResultDto> transitionOrders(
+            @Valid @RequestBody OrderStatusTransitionRequestDto request) {
+        log.info("Запрос на пакетную смену статуса заказов: {} -> {}", request.getFrom(), request.getTo());
+        return ResponseEntity.ok(orderService.transitionOrders(request));
+    }
+
     @PostMapping("/orders/{orderId}/products/{productId}")
-    @Operation(summary = "Добавить товар в заказ", description = "Позволяет добавить товар в заказ")
+    @Operation(summary = "Добавить товар в заказ",
+            description = "Позволяет добавить товар в заказ; повторное добавление увеличивает количество в позиции")
     public ResponseEntity<OrderResponseDto> addProductToOrder(@PathVariable("orderId") Long orderId,
-                                                              @PathVariable("productId") long productId) {
+                                                              @PathVariable("productId") long productId,
+                                                              @RequestParam(defaultValue = "1") int quantity) {
         log.info("Запрос на добавление продукта в заказ с ID: {}", orderId);
-        OrderResponseDto responseDto = orderService.addProductToOrder(orderId, productId);
+        OrderResponseDto responseDto = orderService.addProductToOrder(orderId, productId, quantity);
         log.info("Продукт с ID: {} успешно был добавлен в заказ с ID: {}", productId, orderId);
         return new ResponseEntity<>(responseDto, HttpStatus.ACCEPTED);
     }
 
-    @GetMapping("/orders")
-    @Operation(summary = "Получить все заказы", description = "Возвращает список всех заказов")
+    @PutMapping("/orders/{id}/products")
+    @Operation(summary = "Заменить товары в заказе",
+            description = "Устанавливает набор товаров заказа; добавляются и удаляются только отличающиеся позиции")
+    public ResponseEntity<OrderResponseDto> replaceOrderProducts(@PathVariable("id") Long id,
+                                                                 @RequestBody Set<Long> productIds) {
+        log.info("Запрос на замену товаров в заказе с ID: {}", id);
+        OrderResponseDto responseDto = orderService.replaceOrderProducts(id, productIds);
+        log.info("Товары в заказе с ID: {} успешно заменены", id);
+        return ResponseEntity.ok(responseDto);
+    }
+
+    @PutMapping("/orders/{id}/lines")
+    @Operation(summary = "Заменить позиции заказа",
+            description = "Устанавливает позиции заказа с количеством; позиции обновляются пакетно, " +
+                    "цена фиксируется при добавлении товара в заказ")
+    public ResponseEntity<OrderResponseDto> replaceOrderLines(@PathVariable("id") Long id,
+                                                              @RequestBody List<@Valid @NotNull OrderLineRequestDto> lines) {
+        log.info("Запрос на замену позиций заказа с ID: {}", id);
+        OrderResponseDto responseDto = orderService.replaceOrderLines(id, lines);
+        log.info("Позиции заказа с ID: {} успешно заменены", id);
+        return ResponseEntity.ok(responseDto);
+    }
+
+    @GetMapping(value = "/orders", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatsConfig.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Получить все заказы", description = "Возвращает список всех заказов. " +
+            "Если передан параметр after (пустой для первой страницы), используется курсорная пагинация " +
+            "по (createdDate, id) без подсчета общего количества")
     public ResponseEntity<PageResponse<OrderResponseDto>> getAllOrders(
             @RequestParam(required = false) LocalDateTime createdDate,
             @RequestParam(required = false, name = "orderStatus") OrderStatus orderStatus,
             @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "true") boolean withTotal,
             @PageableDefault(page = 0, size = 10, sort = "createdDate")
             Pageable pageable
             ) {
         log.info("Получение всех заказов");
+        if (after != null) {
+            return ResponseEntity.ok(orderService.getAllOrdersAfter(
+                    createdDate,
+                    orderStatus,
+                    productId,
+                    after,
+                    pageable.getPageSize()));
+        }
         PageResponse<OrderResponseDto> response = orderService.getAllOrders(
                 createdDate,
                 orderStatus,
                 productId,
+                withTotal,
                 pageable);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/orders/summary", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatsConfig.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Получить сводку по заказам",
+            description = "Возвращает облегченный список заказов: статус, дата, имя клиента, " +
+                    "количество товаров и сумма заказа, посчитанные одним агрегирующим запросом")
+    public ResponseEntity<PageResponse<OrderSummaryDto>> getOrderSummaries(
+            @RequestParam(required = false) LocalDateTime createdDate,
+            @RequestParam(required = false, name = "orderStatus") OrderStatus orderStatus,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(defaultValue = "true") boolean withTotal,
+            @PageableDefault(page = 0, size = 10, sort = "createdDate")
+            Pageable pageable
+    ) {
+        log.info("Получение сводки по заказам");
+        return ResponseEntity.ok(orderService.getOrderSummaries(
+                createdDate,
+                orderStatus,
+                productId,
+                withTotal,
+                pageable));
+    }
+
+    @GetMapping("/orders/stats")
+    @Operation(summary = "Получить статистику заказов за период",
+            description = "Возвращает количество заказов и выручку по дням за период по предрассчитанным итогам")
+    public ResponseEntity<OrderStatsDto> getOrderStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.info("Получение статистики заказов за период: {} - {}", from, to);
+        return ResponseEntity.ok(orderTotalsService.getOrderStats(from, to));
+    }
+
+    @GetMapping(value = "/orders/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Выгрузить заказы",
+            description = "Потоково выгружает все заказы по фильтрам в формате NDJSON (один заказ на строку)")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) LocalDateTime createdDate,
+            @RequestParam(required = false, name = "orderStatus") OrderStatus orderStatus,
+            @RequestParam(required = false) Long productId
+    ) {
+        log.info("Получен запрос на выгрузку заказов");
+        StreamingResponseBody body = outputStream -> {
+            long exported = orderService.exportOrders(createdDate, orderStatus, productId, order -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(order));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+            log.info("Выгружено заказов: {}", exported);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping("/orders/{id}")
     @Operation(summary = "Получить заказ по его ID", description = "Позволяет получить информацию о заказе по его ID")
-    public ResponseEntity<OrderResponseDto> getOrderById(@PathVariable("id") Long id) {
+    public ResponseEntity<OrderResponseDto> getOrderById(@PathVariable("id") Long id,
+                                                         WebRequest request) {
         log.info("Получение заказа по ID: {}", id);
-        return new ResponseEntity<>(orderService.getOrderById(id), HttpStatus.OK);
+        String eTag = orderService.getOrderETag(id);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(orderService.getOrderById(id));
     }
 
     @DeleteMapping("/orders/{id}")
     @Operation(summary = "Удалить заказ по его ID", description = "Позволяет удалить заказ по его ID")
-    public ResponseEntity<Long> removeOrder(@PathVariable("id") Long id) {
+    public ResponseEntity<Long> removeOrder(@PathVariable("id") Long id,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.warn("Запрос на удаление заказа с ID: {}", id);
-        Long removedOrder = orderService.removeOrder(id);
+        Long removedOrder = orderService.removeOrder(id, ifMatch);
         log.info("Заказ с ID: {} был успешно удален", id);
         return ResponseEntity.ok(removedOrder);
     }
@@ -95,9 +244,10 @@ public class OrderController {
     @PatchMapping("/orders/{id}")
     @Operation(summary = "Обноваить заказ по его ID", description = "Позволяет обновить информацию о заказе по его ID")
     public ResponseEntity<OrderResponseDto> updateOrder(@PathVariable("id") Long id,
-                                                        @Valid @RequestBody OrderRequestDto requestDto) {
+                                                        @Valid @RequestBody OrderRequestDto requestDto,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.warn("Запрос на изменение данных заказа с ID: {}", id);
-        OrderResponseDto updatedOrder = orderService.updateOrder(id, requestDto);
+        OrderResponseDto updatedOrder = orderService.updateOrder(id, requestDto, ifMatch);
         log.info("Данные заказа с ID: {} успешно изменены", id);
         return new ResponseEntity<>(updatedOrder, HttpStatus.OK);
     }
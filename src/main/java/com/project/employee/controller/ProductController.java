@@ -1,5 +1,6 @@
 package com.project.employee.controller;
 
+import com.project.employee.config.BinaryFormatsConfig;
 import com.project.employee.dto.PageResponse;
 import com.project.employee.dto.ProductRequestDto;
 import com.project.employee.dto.ProductResponseDto;
@@ -12,10 +13,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
 
@@ -35,34 +39,42 @@ public class ProductController {
         return new ResponseEntity<>(responseDto, HttpStatus.CREATED);
     }
 
-    @GetMapping("/products")
+    @GetMapping(value = "/products", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatsConfig.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Получить все товары", description = "Возвращает список всех товаров")
     public ResponseEntity<PageResponse<ProductResponseDto>> getAllProducts(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String description,
             @RequestParam(required = false)BigDecimal price,
+            @RequestParam(defaultValue = "true") boolean withTotal,
             @PageableDefault(page = 0, size = 10, sort = {"name", "price"}, direction = Sort.Direction.ASC)
             Pageable pageable
             ) {
         log.info("Получение всех товаров");
         PageResponse<ProductResponseDto> responseDto = productService.getAllProducts(
-                name, description, price, pageable
+                name, description, price, withTotal, pageable
         );
         return ResponseEntity.ok(responseDto);
     }
 
     @GetMapping("/products/{id}")
     @Operation(summary = "Получить товар по его id", description = "Возвращает информацию о товаре по его id")
-    public ResponseEntity<ProductResponseDto> getProductById(@PathVariable("id") Long id) {
+    public ResponseEntity<ProductResponseDto> getProductById(@PathVariable("id") Long id,
+                                                             WebRequest request) {
         log.info("Получение товара по ID: {}", id);
-        return new ResponseEntity<>(productService.getProductById(id), HttpStatus.OK);
+        String eTag = productService.getProductETag(id);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(productService.getProductById(id));
     }
 
     @DeleteMapping("/products/{id}")
     @Operation(summary = "Удалить товар по его id", description = "Удаляет товар по его id")
-    public ResponseEntity<Long> removeProduct(@PathVariable("id") long id) {
+    public ResponseEntity<Long> removeProduct(@PathVariable("id") long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.warn("Запрос на удаление товара с ID: {}", id);
-        Long removedProduct = productService.removeProductById(id);
+        Long removedProduct = productService.removeProductById(id, ifMatch);
         log.info("Товар с ID: {} успешно удален", id);
         return ResponseEntity.ok(removedProduct);
     }
@@ -70,9 +82,10 @@ public class ProductController {
     @PatchMapping("/products/{id}")
     @Operation(summary = "Обновить товар по его id", description = "Обновляет информацию о товарое по его id")
     public ResponseEntity<ProductResponseDto> updateProduct(@PathVariable("id") Long id,
-                                                            @Valid @RequestBody ProductRequestDto requestDto) {
+                                                            @Valid @RequestBody ProductRequestDto requestDto,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.warn("Запрос на изменение данных товара с ID: {}", id);
-        ProductResponseDto responseDto = productService.updateProduct(id, requestDto);
+        ProductResponseDto responseDto = productService.updateProduct(id, requestDto, ifMatch);
         log.info("Данные товара с ID: {} успешно изменены", id);
         return new ResponseEntity<>(responseDto, HttpStatus.OK);
     }
@@ -0,0 +1,16 @@
+package com.project.employee.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record CustomerStatsDto(
+        Long customerId,
+        Long orderCount,
+        BigDecimal revenue,
+        LocalDate firstOrderDate,
+        LocalDate lastOrderDate
+) {
+    public static CustomerStatsDto empty(Long customerId) {
+        return new CustomerStatsDto(customerId, 0L, BigDecimal.ZERO, null, null);
+    }
+}
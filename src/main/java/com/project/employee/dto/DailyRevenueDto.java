@@ -0,0 +1,7 @@
+package com.project.employee.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailyRevenueDto(LocalDate date, Long orderCount, BigDecimal revenue) {
+}
@@ -0,0 +1,20 @@
+package com.project.employee.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderBatchResultDto {
+    private int index;
+    private boolean created;
+    private OrderResponseDto order;
+    private String error;
+
+    public static OrderBatchResultDto failed(int index, String error) {
+        var result = new OrderBatchResultDto();
+        result.setIndex(index);
+        result.setError(error);
+        return result;
+    }
+}
@@ -0,0 +1,20 @@
+package com.project.employee.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+@Schema(description = "DTO позиции заказа")
+public class OrderLineRequestDto {
+
+    @Schema(description = "ID товара", example = "1", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "ID товара не должен быть пустым")
+    private Long productId;
+
+    @Schema(description = "Количество товара", example = "2", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "Количество товара не должно быть пустым")
+    @Min(value = 1, message = "Количество товара должно быть больше нуля")
+    private Integer quantity;
+}
@@ -29,5 +29,6 @@ public class OrderResponseDto {
         private String name;
         private String description;
         private BigDecimal price;
+        private int quantity;
     }
 }
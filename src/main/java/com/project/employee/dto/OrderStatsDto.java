@@ -0,0 +1,14 @@
+package com.project.employee.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public record OrderStatsDto(
+        LocalDate from,
+        LocalDate to,
+        Long orderCount,
+        BigDecimal revenue,
+        List<DailyRevenueDto> days
+) {
+}
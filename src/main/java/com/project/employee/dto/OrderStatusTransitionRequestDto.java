@@ -0,0 +1,29 @@
+package com.project.employee.dto;
+
+import com.project.employee.enums.OrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Schema(description = "DTO для пакетной смены статуса заказов")
+public class OrderStatusTransitionRequestDto {
+
+    @Schema(description = "Текущий статус заказов", example = "PROCESSING",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "Текущий статус не должен быть пустым")
+    private OrderStatus from;
+
+    @Schema(description = "Новый статус заказов", example = "COMPLETED",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "Новый статус не должен быть пустым")
+    private OrderStatus to;
+
+    @Schema(description = "Только заказы, созданные не раньше указанной даты")
+    private LocalDateTime createdDate;
+
+    @Schema(description = "Только заказы, содержащие указанный товар")
+    private Long productId;
+}
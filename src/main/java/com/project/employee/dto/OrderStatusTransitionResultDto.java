@@ -0,0 +1,10 @@
+package com.project.employee.dto;
+
+import com.project.employee.enums.OrderStatus;
+
+public record OrderStatusTransitionResultDto(
+        OrderStatus from,
+        OrderStatus to,
+        int updated
+) {
+}
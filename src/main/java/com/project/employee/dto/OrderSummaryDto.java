@@ -0,0 +1,19 @@
+package com.project.employee.dto;
+
+import com.project.employee.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record OrderSummaryDto(
+        Long id,
+        OrderStatus orderStatus,
+        LocalDateTime createdDate,
+        String customerName,
+        Long productCount,
+        BigDecimal total
+) {
+    public OrderSummaryDto {
+        total = total == null ? BigDecimal.ZERO : total;
+    }
+}
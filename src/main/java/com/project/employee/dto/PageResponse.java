@@ -1,18 +1,40 @@
 package com.project.employee.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
 @Data
 @NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PageResponse<T> {
     private List<T> content;
     private int pageNumber;
     private int pageSize;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements;
+    private Integer totalPages;
     private boolean first;
     private boolean last;
+    private String nextCursor;
+
+    public static <T> PageResponse<T> fromPage(Page<T> page) {
+        var response = fromSlice(page);
+        response.setTotalElements(page.getTotalElements());
+        response.setTotalPages(page.getTotalPages());
+        return response;
+    }
+
+    public static <T> PageResponse<T> fromSlice(Slice<T> slice) {
+        var response = new PageResponse<T>();
+        response.setContent(slice.getContent());
+        response.setPageNumber(slice.getNumber());
+        response.setPageSize(slice.getSize());
+        response.setFirst(slice.isFirst());
+        response.setLast(slice.isLast());
+        return response;
+    }
 }
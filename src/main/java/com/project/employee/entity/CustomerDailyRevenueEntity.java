@@ -0,0 +1,40 @@
+package com.project.employee.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "customer_daily_revenue")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerDailyRevenueEntity {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "order_count", nullable = false)
+    private int orderCount;
+
+    @Column(name = "revenue", nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    @Embeddable
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+
+        @Column(name = "customer_id")
+        private Long customerId;
+
+        @Column(name = "revenue_date")
+        private LocalDate revenueDate;
+    }
+}
@@ -31,6 +31,10 @@ public class CustomerEntity {
     @Column(name = "phone_number", unique = true)
     private String phoneNumber;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "customer", fetch = FetchType.LAZY,
             cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     private List<OrderEntity> orders = new ArrayList<>();
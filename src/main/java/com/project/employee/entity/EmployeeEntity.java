@@ -30,4 +30,8 @@ public class EmployeeEntity {
     @Column(name = "role")
     @Enumerated(EnumType.STRING)
     private EmployeeRole role;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
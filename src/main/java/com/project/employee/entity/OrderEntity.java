@@ -4,7 +4,9 @@ import com.project.employee.enums.OrderStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -13,39 +15,60 @@ import java.util.List;
 @Entity
 @Table(name = "orders")
 @Data
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class OrderEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_id_seq", allocationSize = 50)
     private Long id;
 
     @CreationTimestamp
-    @Column(name = "created_date", updatable = false)
+    @Column(name = "created_date", nullable = false, updatable = false)
     private LocalDateTime createdDate;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private OrderStatus orderStatus;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "customer_id")
+    @ToString.Exclude
     private CustomerEntity customer;
 
-    @ManyToMany
-    @JoinTable(name = "product_order",
-        joinColumns = @JoinColumn(name = "order_id"),
-        inverseJoinColumns = @JoinColumn(name = "product_id"))
-    private List<ProductEntity> products = new ArrayList<>();
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id.productId")
+    @ToString.Exclude
+    private List<OrderLineEntity> lines = new ArrayList<>();
+
+    public List<ProductEntity> getProducts() {
+        return lines.stream()
+                .map(OrderLineEntity::getProduct)
+                .toList();
+    }
 
     public void addProduct(ProductEntity product) {
-        products.add(product);
-        product.getOrders().add(this);
+        addProduct(product, 1);
+    }
+
+    public void addProduct(ProductEntity product, int quantity) {
+        for (OrderLineEntity line : lines) {
+            if (line.getProduct().equals(product)) {
+                line.setQuantity(line.getQuantity() + quantity);
+                return;
+            }
+        }
+        lines.add(new OrderLineEntity(this, product, quantity));
     }
 
     public void removeProduct(ProductEntity product) {
-        products.remove(product);
-        product.getOrders().remove(this);
+        lines.removeIf(line -> line.getProduct().equals(product));
     }
 }
@@ -0,0 +1,63 @@
+package com.project.employee.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "order_lines")
+@Data
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderLineEntity {
+
+    @EmbeddedId
+    @EqualsAndHashCode.Include
+    private Key id = new Key();
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("orderId")
+    @JoinColumn(name = "order_id")
+    @ToString.Exclude
+    private OrderEntity order;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("productId")
+    @JoinColumn(name = "product_id")
+    @ToString.Exclude
+    private ProductEntity product;
+
+    @Column(name = "quantity", nullable = false)
+    private int quantity;
+
+    @Column(name = "unit_price", nullable = false, precision = 19, scale = 2)
+    private BigDecimal unitPrice;
+
+    public OrderLineEntity(OrderEntity order, ProductEntity product, int quantity) {
+        this.id = new Key(order.getId(), product.getId());
+        this.order = order;
+        this.product = product;
+        this.quantity = quantity;
+        this.unitPrice = product.getPrice() != null ? product.getPrice() : BigDecimal.ZERO;
+    }
+
+    @Embeddable
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+
+        @Column(name = "order_id")
+        private Long orderId;
+
+        @Column(name = "product_id")
+        private Long productId;
+    }
+}
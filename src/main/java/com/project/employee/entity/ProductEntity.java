@@ -3,8 +3,11 @@ package com.project.employee.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-import org.hibernate.Hibernate;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -12,12 +15,16 @@ import java.util.List;
 
 @Entity
 @Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
 @Data
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class ProductEntity {
 
     @Id
+    @EqualsAndHashCode.Include
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
@@ -30,16 +37,12 @@ public class ProductEntity {
     @Column(name = "price", precision = 19, scale = 2)
     private BigDecimal price;
 
-    @ManyToMany(mappedBy = "products")
-    private List<OrderEntity> orders = new ArrayList<>();
-
-    @PreRemove
-    private void checkOrdersBeforeDelete() {
-        if (!Hibernate.isInitialized(orders)) {
-            Hibernate.initialize(orders);
-        }
-        if (!orders.isEmpty()) {
-            throw new IllegalStateException("Cannot delete product referenced in order");
-        }
-    }
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @OneToMany(mappedBy = "product")
+    @ToString.Exclude
+    private List<OrderLineEntity> orderLines = new ArrayList<>();
+
 }
@@ -1,5 +1,8 @@
 package com.project.employee.enums;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum OrderStatus {
     NEW("Новый"),
     PROCESSING("В обработке"),
@@ -11,4 +14,16 @@ public enum OrderStatus {
     OrderStatus(String displayName) {
         this.displayName = displayName;
     }
+
+    public Set<OrderStatus> nextStatuses() {
+        return switch (this) {
+            case NEW -> EnumSet.of(PROCESSING, CANCELED);
+            case PROCESSING -> EnumSet.of(COMPLETED, CANCELED);
+            case COMPLETED, CANCELED -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return nextStatuses().contains(target);
+    }
 }
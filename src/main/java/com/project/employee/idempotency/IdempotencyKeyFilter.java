@@ -0,0 +1,213 @@
+package com.project.employee.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.employee.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Slf4j
+public class IdempotencyKeyFilter extends OncePerRequestFilter {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 200;
+    private static final List<String> PATHS = List.of("/orders", "/products", "/customers", "/employees");
+    private static final Set<String> NOT_REPLAYED_HEADERS = Set.of("content-type", "content-length",
+            "transfer-encoding", "connection", "date", "set-cookie", "idempotent-replayed");
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Counter replayed;
+    private final Counter stored;
+    private final Counter conflicts;
+    private final Counter mismatches;
+
+    public IdempotencyKeyFilter(IdempotencyStore store, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.replayed = meterRegistry.counter("app.idempotency.requests", "result", "replayed");
+        this.stored = meterRegistry.counter("app.idempotency.requests", "result", "stored");
+        this.conflicts = meterRegistry.counter("app.idempotency.requests", "result", "conflict");
+        this.mismatches = meterRegistry.counter("app.idempotency.requests", "result", "mismatch");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return PATHS.stream().noneMatch(prefix -> path.equals(prefix) || path.startsWith(prefix + "/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST,
+                    "Заголовок " + IDEMPOTENCY_KEY_HEADER + " должен содержать от 1 до " + MAX_KEY_LENGTH + " символов");
+            return;
+        }
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String fingerprint = fingerprint(cachedRequest.body);
+        String key = idempotencyKey + '|' + request.getMethod() + ' ' + request.getRequestURI();
+        Optional<StoredResponse> cached = store.find(key);
+        if (cached.isEmpty() && !store.tryReserve(key)) {
+            cached = store.find(key);
+            if (cached.isEmpty()) {
+                conflicts.increment();
+                log.warn("Запрос с ключом идемпотентности {} уже выполняется", idempotencyKey);
+                writeError(request, response, HttpStatus.CONFLICT,
+                        "Запрос с ключом идемпотентности " + idempotencyKey + " уже выполняется");
+                return;
+            }
+        }
+        if (cached.isPresent()) {
+            if (!fingerprint.equals(cached.get().fingerprint())) {
+                mismatches.increment();
+                log.warn("Ключ идемпотентности {} повторно использован с другим телом запроса", idempotencyKey);
+                writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Ключ идемпотентности " + idempotencyKey + " уже использован с другим телом запроса");
+                return;
+            }
+            replay(cached.get(), response);
+            replayed.increment();
+            log.debug("Повторный запрос с ключом идемпотентности {} обслужен из хранилища", idempotencyKey);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(cachedRequest, wrapper);
+            if (wrapper.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                completed = complete(key, fingerprint, wrapper);
+            }
+        } finally {
+            if (!completed) {
+                store.release(key);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private boolean complete(String key, String fingerprint, ContentCachingResponseWrapper wrapper) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : wrapper.getHeaderNames()) {
+            if (!NOT_REPLAYED_HEADERS.contains(name.toLowerCase())) {
+                headers.addAll(name, List.copyOf(wrapper.getHeaders(name)));
+            }
+        }
+        try {
+            store.complete(key, new StoredResponse(fingerprint, wrapper.getStatus(), wrapper.getContentType(),
+                    headers, wrapper.getContentAsByteArray()));
+            stored.increment();
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Не удалось сохранить ответ для ключа идемпотентности {}: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    private void replay(StoredResponse storedResponse, HttpServletResponse response) throws IOException {
+        response.setStatus(storedResponse.status());
+        storedResponse.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        if (storedResponse.contentType() != null) {
+            response.setContentType(storedResponse.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(storedResponse.body().length);
+        response.getOutputStream().write(storedResponse.body());
+    }
+
+    private static String fingerprint(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response,
+                            HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(status.value(), status.getReasonPhrase(), message, request.getRequestURI()));
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() == null
+                    ? StandardCharsets.UTF_8 : Charset.forName(getCharacterEncoding());
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
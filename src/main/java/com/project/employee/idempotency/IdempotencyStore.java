@@ -0,0 +1,14 @@
+package com.project.employee.idempotency;
+
+import java.util.Optional;
+
+public interface IdempotencyStore {
+
+    Optional<StoredResponse> find(String key);
+
+    boolean tryReserve(String key);
+
+    void complete(String key, StoredResponse response);
+
+    void release(String key);
+}
@@ -0,0 +1,83 @@
+package com.project.employee.idempotency;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    private final Map<String, Entry> entries;
+    private final long ttlNanos;
+    private final long lockTimeoutNanos;
+
+    public InMemoryIdempotencyStore(int maxEntries, Duration ttl, Duration lockTimeout) {
+        this.ttlNanos = ttl.toNanos();
+        this.lockTimeoutNanos = lockTimeout.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictCompleted();
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<StoredResponse> find(String key) {
+        Entry entry = live(key);
+        return entry == null ? Optional.empty() : Optional.ofNullable(entry.response());
+    }
+
+    @Override
+    public synchronized boolean tryReserve(String key) {
+        if (live(key) != null) {
+            return false;
+        }
+        entries.put(key, new Entry(null, System.nanoTime() + lockTimeoutNanos));
+        return true;
+    }
+
+    @Override
+    public synchronized void complete(String key, StoredResponse response) {
+        entries.put(key, new Entry(response, System.nanoTime() + ttlNanos));
+    }
+
+    @Override
+    public synchronized void release(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.response() == null) {
+            entries.remove(key);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evictCompleted() {
+        long now = System.nanoTime();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.response() != null || entry.expiresAt() - now <= 0) {
+                iterator.remove();
+                return;
+            }
+        }
+    }
+
+    private Entry live(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() - System.nanoTime() <= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private record Entry(StoredResponse response, long expiresAt) {
+    }
+}
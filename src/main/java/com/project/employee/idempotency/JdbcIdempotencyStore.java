@@ -0,0 +1,105 @@
+package com.project.employee.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class JdbcIdempotencyStore implements IdempotencyStore {
+    private static final String FIND_SQL = """
+            SELECT fingerprint, status, content_type, headers, body FROM idempotency_keys
+            WHERE idempotency_key = ? AND status IS NOT NULL AND expires_at > ?
+            """;
+    private static final String INSERT_SQL =
+            "INSERT INTO idempotency_keys (idempotency_key, expires_at) VALUES (?, ?)";
+    private static final String COMPLETE_SQL = """
+            UPDATE idempotency_keys SET fingerprint = ?, status = ?, content_type = ?, headers = ?, body = ?, expires_at = ?
+            WHERE idempotency_key = ?
+            """;
+    private static final String RELEASE_SQL =
+            "DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status IS NULL";
+    private static final String DELETE_EXPIRED_KEY_SQL =
+            "DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at <= ?";
+    private static final String PURGE_SQL = "DELETE FROM idempotency_keys WHERE expires_at <= ?";
+    private static final String HEADER_SEPARATOR = ": ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final AtomicLong nextPurge = new AtomicLong();
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, Duration ttl, Duration lockTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String key) {
+        return jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> new StoredResponse(rs.getString("fingerprint"),
+                        rs.getInt("status"), rs.getString("content_type"), readHeaders(rs.getString("headers")),
+                        rs.getBytes("body")),
+                key, Timestamp.from(Instant.now())).stream().findFirst();
+    }
+
+    @Override
+    public boolean tryReserve(String key) {
+        Instant now = Instant.now();
+        purgeExpired(now);
+        jdbcTemplate.update(DELETE_EXPIRED_KEY_SQL, key, Timestamp.from(now));
+        try {
+            jdbcTemplate.update(INSERT_SQL, key, Timestamp.from(now.plus(lockTimeout)));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        jdbcTemplate.update(COMPLETE_SQL, response.fingerprint(), response.status(), response.contentType(),
+                writeHeaders(response.headers()), response.body(), Timestamp.from(Instant.now().plus(ttl)), key);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update(RELEASE_SQL, key);
+    }
+
+    private static String writeHeaders(HttpHeaders headers) {
+        StringBuilder text = new StringBuilder();
+        headers.forEach((name, values) -> values.forEach(value ->
+                text.append(name).append(HEADER_SEPARATOR).append(value).append('\n')));
+        return text.toString();
+    }
+
+    private static HttpHeaders readHeaders(String text) {
+        HttpHeaders headers = new HttpHeaders();
+        if (text != null) {
+            text.lines().forEach(line -> {
+                int separator = line.indexOf(HEADER_SEPARATOR);
+                if (separator > 0) {
+                    headers.add(line.substring(0, separator), line.substring(separator + HEADER_SEPARATOR.length()));
+                }
+            });
+        }
+        return headers;
+    }
+
+    private void purgeExpired(Instant now) {
+        long scheduled = nextPurge.get();
+        if (now.toEpochMilli() < scheduled
+                || !nextPurge.compareAndSet(scheduled, now.plus(lockTimeout).toEpochMilli())) {
+            return;
+        }
+        int purged = jdbcTemplate.update(PURGE_SQL, Timestamp.from(now));
+        log.debug("Удалено просроченных ключей идемпотентности: {}", purged);
+    }
+}
@@ -0,0 +1,6 @@
+package com.project.employee.idempotency;
+
+import org.springframework.http.HttpHeaders;
+
+public record StoredResponse(String fingerprint, int status, String contentType, HttpHeaders headers, byte[] body) {
+}
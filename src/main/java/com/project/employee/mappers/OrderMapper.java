@@ -3,13 +3,18 @@ package com.project.employee.mappers;
 import com.project.employee.dto.OrderRequestDto;
 import com.project.employee.dto.OrderResponseDto;
 import com.project.employee.dto.ProductResponseDto;
+import com.project.employee.entity.ArchivedOrderEntity;
+import com.project.employee.entity.ArchivedOrderLineEntity;
 import com.project.employee.entity.CustomerEntity;
 import com.project.employee.entity.OrderEntity;
+import com.project.employee.entity.OrderLineEntity;
 import com.project.employee.entity.ProductEntity;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper(componentModel = "spring")
@@ -21,10 +26,16 @@ public interface OrderMapper {
 //            qualifiedByName = "getOrderInfo")
     @Mapping(target = "customerInfo", source = "customer",
              qualifiedByName = "mapCustomerInfo")
-    @Mapping(target = "productInfo", source = "products",
+    @Mapping(target = "productInfo", source = "lines",
             qualifiedByName = "mapProductInfoList")
     OrderResponseDto  toResponseDto(OrderEntity entity);
 
+    @Mapping(target = "customerInfo", source = "customer",
+             qualifiedByName = "mapCustomerInfo")
+    @Mapping(target = "productInfo", source = "lines",
+            qualifiedByName = "mapArchivedProductInfoList")
+    OrderResponseDto toArchivedResponseDto(ArchivedOrderEntity entity);
+
 //    @Named("getOrderInfo")
 //    default String getOrderInfo(OrderEntity entity) {
 //        Long customerId = entity.getCustomer() != null ? entity.getCustomer().getId() : null;
@@ -47,20 +58,15 @@ public interface OrderMapper {
     }
 
     @Named("mapProductInfo")
-    default OrderResponseDto.ProductInfo mapProductInfo(ProductEntity entity) {
-        if (entity == null) {
+    default OrderResponseDto.ProductInfo mapProductInfo(OrderLineEntity line) {
+        if (line == null) {
             return null;
         }
-        OrderResponseDto.ProductInfo info = new OrderResponseDto.ProductInfo();
-        info.setId(entity.getId());
-        info.setName(entity.getName());
-        info.setDescription(entity.getDescription());
-        info.setPrice(entity.getPrice());
-        return info;
+        return productInfo(line.getProduct(), line.getUnitPrice(), line.getQuantity());
     }
 
     @Named("mapProductInfoList")
-    default List<OrderResponseDto.ProductInfo> mapProductInfoList(List<ProductEntity> entities) {
+    default List<OrderResponseDto.ProductInfo> mapProductInfoList(Collection<OrderLineEntity> entities) {
         if (entities == null) {
             return List.of();
         }
@@ -69,9 +75,30 @@ public interface OrderMapper {
                     .toList();
         }
 
+    @Named("mapArchivedProductInfoList")
+    default List<OrderResponseDto.ProductInfo> mapArchivedProductInfoList(Collection<ArchivedOrderLineEntity> entities) {
+        if (entities == null) {
+            return List.of();
+        }
+        return entities.stream()
+                .map(line -> productInfo(line.getProduct(), line.getUnitPrice(), line.getQuantity()))
+                .toList();
+    }
+
+    @Named("productInfo")
+    default OrderResponseDto.ProductInfo productInfo(ProductEntity entity, BigDecimal unitPrice, int quantity) {
+        OrderResponseDto.ProductInfo info = new OrderResponseDto.ProductInfo();
+        info.setId(entity.getId());
+        info.setName(entity.getName());
+        info.setDescription(entity.getDescription());
+        info.setPrice(unitPrice);
+        info.setQuantity(quantity);
+        return info;
+    }
+
         ProductResponseDto toProductResponseDto(ProductEntity entity);
 
-    default List<ProductResponseDto> toProductResponseDtoList(List<ProductEntity> entities) {
+    default List<ProductResponseDto> toProductResponseDtoList(Collection<ProductEntity> entities) {
         if (entities == null) {
             return List.of();
         }
@@ -0,0 +1,12 @@
+package com.project.employee.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class CountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCountHolder.statementExecuted();
+        return sql;
+    }
+}
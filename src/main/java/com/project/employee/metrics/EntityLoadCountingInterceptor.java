@@ -0,0 +1,13 @@
+package com.project.employee.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+public class EntityLoadCountingInterceptor implements Interceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        QueryCountHolder.entityLoaded();
+        return false;
+    }
+}
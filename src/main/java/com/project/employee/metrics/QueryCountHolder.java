@@ -0,0 +1,28 @@
+package com.project.employee.metrics;
+
+public final class QueryCountHolder {
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[2]);
+
+    private QueryCountHolder() {
+    }
+
+    public static void statementExecuted() {
+        COUNTS.get()[0]++;
+    }
+
+    public static void entityLoaded() {
+        COUNTS.get()[1]++;
+    }
+
+    public static long statements() {
+        return COUNTS.get()[0];
+    }
+
+    public static long entitiesLoaded() {
+        return COUNTS.get()[1];
+    }
+
+    public static void reset() {
+        COUNTS.remove();
+    }
+}
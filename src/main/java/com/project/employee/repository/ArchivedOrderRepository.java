@@ -0,0 +1,25 @@
+package com.project.employee.repository;
+
+import com.project.employee.entity.ArchivedOrderEntity;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ArchivedOrderRepository extends BaseRepository<ArchivedOrderEntity, Long> {
+
+    @Query("""
+           select distinct o
+           from ArchivedOrderEntity o
+           left join fetch o.customer
+           left join fetch o.lines l
+           left join fetch l.product
+           where o.id = :id
+           """)
+    Optional<ArchivedOrderEntity> findByIdWithCustomerAndProducts(@Param("id") Long id);
+
+    @Query("select o.version from ArchivedOrderEntity o where o.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+}
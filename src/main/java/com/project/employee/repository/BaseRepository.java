@@ -0,0 +1,36 @@
+package com.project.employee.repository;
+
+import com.project.employee.specification.FilterQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+@NoRepositoryBean
+public interface BaseRepository<T, ID> extends JpaRepository<T, ID>, JpaSpecificationExecutor<T> {
+
+    Slice<T> findSlice(Specification<T> spec, Pageable pageable);
+
+    Page<ID> findIds(Specification<T> spec, Pageable pageable);
+
+    Slice<ID> findIdSlice(Specification<T> spec, Pageable pageable);
+
+    Page<T> findAll(FilterQuery<T> filter, Pageable pageable);
+
+    Slice<T> findSlice(FilterQuery<T> filter, Pageable pageable);
+
+    Page<ID> findIds(FilterQuery<T> filter, Pageable pageable);
+
+    Slice<ID> findIdSlice(FilterQuery<T> filter, Pageable pageable);
+
+    int updateAll(FilterQuery<T> filter, Map<String, Object> assignments);
+
+    Stream<ID> streamIds(Specification<T> spec, Sort sort, int fetchSize);
+}
@@ -0,0 +1,156 @@
+package com.project.employee.repository;
+
+import com.project.employee.specification.FilterQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class BaseRepositoryImpl<T, ID> extends SimpleJpaRepository<T, ID> implements BaseRepository<T, ID> {
+
+    private final JpaEntityInformation<T, ?> entityInformation;
+    private final EntityManager entityManager;
+    private final FilterQueryCache filterQueries;
+
+    public BaseRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityInformation = entityInformation;
+        this.entityManager = entityManager;
+        this.filterQueries = new FilterQueryCache(
+                entityManager.getMetamodel().managedType(entityInformation.getJavaType()),
+                entityInformation.getEntityName(),
+                entityInformation.getIdAttribute().getName());
+    }
+
+    @Override
+    public Slice<T> findSlice(Specification<T> spec, Pageable pageable) {
+        return toSlice(getQuery(spec, pageable.getSort()), pageable);
+    }
+
+    @Override
+    public Page<ID> findIds(Specification<T> spec, Pageable pageable) {
+        TypedQuery<ID> query = getIdQuery(spec, pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(query.getResultList());
+        }
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public Slice<ID> findIdSlice(Specification<T> spec, Pageable pageable) {
+        return toSlice(getIdQuery(spec, pageable.getSort()), pageable);
+    }
+
+    @Override
+    public Page<T> findAll(FilterQuery<T> filter, Pageable pageable) {
+        return toPage(filterQuery(filterQueries.select(filter, pageable.getSort()), getDomainClass(), filter),
+                filter, pageable);
+    }
+
+    @Override
+    public Slice<T> findSlice(FilterQuery<T> filter, Pageable pageable) {
+        return toSlice(filterQuery(filterQueries.select(filter, pageable.getSort()), getDomainClass(), filter),
+                pageable);
+    }
+
+    @Override
+    public Page<ID> findIds(FilterQuery<T> filter, Pageable pageable) {
+        return toPage(filterQuery(filterQueries.selectIds(filter, pageable.getSort()), idType(), filter),
+                filter, pageable);
+    }
+
+    @Override
+    public Slice<ID> findIdSlice(FilterQuery<T> filter, Pageable pageable) {
+        return toSlice(filterQuery(filterQueries.selectIds(filter, pageable.getSort()), idType(), filter),
+                pageable);
+    }
+
+    @Override
+    @Transactional
+    public int updateAll(FilterQuery<T> filter, Map<String, Object> assignments) {
+        Query query = entityManager.createQuery(filterQueries.update(filter, assignments.keySet()));
+        filter.getParameters().forEach(query::setParameter);
+        assignments.forEach((property, value) -> query.setParameter(FilterQueryCache.SET_PREFIX + property, value));
+        int updated = query.executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    @Override
+    public Stream<ID> streamIds(Specification<T> spec, Sort sort, int fetchSize) {
+        return getIdQuery(spec, sort)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    private <R> Page<R> toPage(TypedQuery<R> query, FilterQuery<T> filter, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(query.getResultList());
+        }
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable,
+                () -> filterQuery(filterQueries.count(filter), Long.class, filter).getSingleResult());
+    }
+
+    private <R> TypedQuery<R> filterQuery(String jpql, Class<R> resultType, FilterQuery<T> filter) {
+        return filterQueries.create(entityManager, jpql, resultType, filter);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<ID> idType() {
+        return (Class<ID>) entityInformation.getIdType();
+    }
+
+    private <R> Slice<R> toSlice(TypedQuery<R> query, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList());
+        }
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<R> rows = query.getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<R> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TypedQuery<ID> getIdQuery(Specification<T> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ID> query = cb.createQuery((Class<ID>) entityInformation.getIdType());
+        Root<T> root = query.from(getDomainClass());
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.select(root.<ID>get(entityInformation.getIdAttribute().getName()));
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query);
+    }
+}
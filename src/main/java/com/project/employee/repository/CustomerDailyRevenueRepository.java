@@ -0,0 +1,38 @@
+package com.project.employee.repository;
+
+import com.project.employee.dto.CustomerStatsDto;
+import com.project.employee.dto.DailyRevenueDto;
+import com.project.employee.entity.CustomerDailyRevenueEntity;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CustomerDailyRevenueRepository
+        extends BaseRepository<CustomerDailyRevenueEntity, CustomerDailyRevenueEntity.Key> {
+
+    @Query("""
+           select new com.project.employee.dto.CustomerStatsDto(
+                  r.id.customerId, sum(r.orderCount), sum(r.revenue),
+                  min(r.id.revenueDate), max(r.id.revenueDate))
+           from CustomerDailyRevenueEntity r
+           where r.id.customerId = :customerId
+           group by r.id.customerId
+           """)
+    Optional<CustomerStatsDto> findCustomerStats(@Param("customerId") Long customerId);
+
+    @Query("""
+           select new com.project.employee.dto.DailyRevenueDto(
+                  r.id.revenueDate, sum(r.orderCount), sum(r.revenue))
+           from CustomerDailyRevenueEntity r
+           where (:from is null or r.id.revenueDate >= :from)
+             and (:to is null or r.id.revenueDate <= :to)
+           group by r.id.revenueDate
+           order by r.id.revenueDate
+           """)
+    List<DailyRevenueDto> findDailyRevenue(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -1,12 +1,38 @@
 package com.project.employee.repository;
 
 import com.project.employee.entity.CustomerEntity;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 
 @Repository
-public interface CustomerRepository extends JpaRepository<CustomerEntity, Long>,
-                                            JpaSpecificationExecutor<CustomerEntity> {
+public interface CustomerRepository extends BaseRepository<CustomerEntity, Long> {
+
+    @Query("""
+            select concat(cast(c.version as String), '.', cast(count(o) as String), '.',
+                          cast(coalesce(sum(o.version), 0) as String), '.', cast(coalesce(max(o.id), 0) as String))
+            from CustomerEntity c
+            left join c.orders o
+            where c.id = :id
+            group by c.version
+            """)
+    Optional<String> findVersionTag(@Param("id") Long id);
+
+    @Query("select c.version from CustomerEntity c where c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("""
+           select case when exists (select 1 from OrderEntity o where o.customer.id = :id)
+                         or exists (select 1 from ArchivedOrderEntity a where a.customer.id = :id)
+                  then true else false end
+           """)
+    boolean hasOrders(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from CustomerEntity c where c.id = :id and c.version = :version")
+    int deleteByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
 }
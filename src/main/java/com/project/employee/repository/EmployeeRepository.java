@@ -1,11 +1,15 @@
 package com.project.employee.repository;
 
 import com.project.employee.entity.EmployeeEntity;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
-public interface EmployeeRepository extends JpaRepository<EmployeeEntity, Long>,
-                                            JpaSpecificationExecutor<EmployeeEntity> {
+public interface EmployeeRepository extends BaseRepository<EmployeeEntity, Long> {
+
+    @Query("select e.version from EmployeeEntity e where e.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
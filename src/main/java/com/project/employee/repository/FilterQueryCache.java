@@ -0,0 +1,150 @@
+package com.project.employee.repository;
+
+import com.project.employee.exception.BadRequestException;
+import com.project.employee.specification.FilterQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.IdentifiableType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.project.employee.specification.FilterQuery.ALIAS;
+
+public class FilterQueryCache {
+    public static final String SET_PREFIX = "set_";
+    private static final int MAX_SHAPES = 1024;
+
+    private final Map<String, String> statements = new ConcurrentHashMap<>();
+    private final ManagedType<?> managedType;
+    private final String entityName;
+    private final String idAttribute;
+
+    public FilterQueryCache(ManagedType<?> managedType, String entityName, String idAttribute) {
+        this.managedType = managedType;
+        this.entityName = entityName;
+        this.idAttribute = idAttribute;
+    }
+
+    public String select(FilterQuery<?> filter, Sort sort) {
+        return statement("select " + ALIAS, filter, sort);
+    }
+
+    public String selectIds(FilterQuery<?> filter, Sort sort) {
+        return statement("select " + ALIAS + "." + idAttribute, filter, sort);
+    }
+
+    public String count(FilterQuery<?> filter) {
+        return statement("select count(" + ALIAS + ")", filter, Sort.unsorted());
+    }
+
+    public String update(FilterQuery<?> filter, Collection<String> attributes) {
+        StringJoiner assignments = new StringJoiner(", ", " set ", "");
+        attributes.forEach(property ->
+                assignments.add(ALIAS + "." + attribute(property) + " = :" + SET_PREFIX + property));
+        boolean versioned = managedType instanceof IdentifiableType<?> identifiable
+                && identifiable.hasVersionAttribute();
+        return "update " + (versioned ? "versioned " : "") + entityName + " " + ALIAS
+                + assignments + filter.whereClause();
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    public <R> TypedQuery<R> create(EntityManager entityManager, String jpql, Class<R> resultType,
+                                    FilterQuery<?> filter) {
+        TypedQuery<R> query = entityManager.createQuery(jpql, resultType);
+        filter.getParameters().forEach(query::setParameter);
+        if (filter.isCacheable()) {
+            query.setHint(HibernateHints.HINT_CACHEABLE, true);
+        }
+        return query;
+    }
+
+    private String statement(String selection, FilterQuery<?> filter, Sort sort) {
+        String key = selection + '|' + filter.shapeKey() + '|' + sort;
+        String cached = statements.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Map<String, String> joins = new LinkedHashMap<>();
+        String orderBy = orderBy(sort, joins);
+        StringBuilder from = new StringBuilder(" from ").append(entityName).append(' ').append(ALIAS);
+        joins.forEach((path, alias) -> from.append(" left join ").append(path).append(' ').append(alias));
+        String jpql = selection + from + filter.whereClause() + orderBy;
+        if (statements.size() < MAX_SHAPES) {
+            statements.putIfAbsent(key, jpql);
+        }
+        return jpql;
+    }
+
+    private String orderBy(Sort sort, Map<String, String> joins) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        StringJoiner orders = new StringJoiner(", ", " order by ", "");
+        for (Sort.Order order : sort) {
+            String path = path(order.getProperty(), joins);
+            orders.add((order.isIgnoreCase() ? "lower(" + path + ")" : path)
+                    + (order.isAscending() ? " asc" : " desc"));
+        }
+        return orders.toString();
+    }
+
+    private String path(String property, Map<String, String> joins) {
+        String[] segments = property.split("\\.", -1);
+        ManagedType<?> type = managedType;
+        String path = ALIAS;
+        for (int i = 0; i < segments.length - 1; i++) {
+            Attribute<?, ?> attribute = attribute(type, segments[i], property);
+            if (!(attribute instanceof SingularAttribute<?, ?> singular)
+                    || !(singular.getType() instanceof ManagedType<?> nested)) {
+                throw unsupportedSort(property);
+            }
+            path = path + "." + attribute.getName();
+            if (attribute.isAssociation()) {
+                path = joins.computeIfAbsent(path, key -> "s" + joins.size());
+            }
+            type = nested;
+        }
+        return path + "." + basicAttribute(type, segments[segments.length - 1], property).getName();
+    }
+
+    private String attribute(String property) {
+        return basicAttribute(managedType, property, property).getName();
+    }
+
+    private static Attribute<?, ?> basicAttribute(ManagedType<?> type, String name, String property) {
+        Attribute<?, ?> attribute = attribute(type, name, property);
+        if (attribute.isAssociation()
+                || attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.EMBEDDED) {
+            throw unsupportedSort(property);
+        }
+        return attribute;
+    }
+
+    private static Attribute<?, ?> attribute(ManagedType<?> type, String name, String property) {
+        try {
+            Attribute<?, ?> attribute = type.getAttribute(name);
+            if (attribute.isCollection()) {
+                throw unsupportedSort(property);
+            }
+            return attribute;
+        } catch (IllegalArgumentException e) {
+            throw unsupportedSort(property);
+        }
+    }
+
+    private static BadRequestException unsupportedSort(String property) {
+        return new BadRequestException("Сортировка по полю " + property + " не поддерживается");
+    }
+}
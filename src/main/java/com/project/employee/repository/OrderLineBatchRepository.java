@@ -0,0 +1,8 @@
+package com.project.employee.repository;
+
+import java.util.Map;
+
+public interface OrderLineBatchRepository {
+
+    int upsertLines(Long orderId, Map<Long, Integer> quantities);
+}
@@ -0,0 +1,47 @@
+package com.project.employee.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class OrderLineBatchRepositoryImpl implements OrderLineBatchRepository {
+
+    private static final String UPSERT_LINE = """
+            merge into order_lines l
+            using (
+                select p.id as product_id, coalesce(p.price, 0) as unit_price
+                from products p
+                where p.id = :productId
+            ) s on l.order_id = :orderId and l.product_id = s.product_id
+            when matched and l.quantity <> :quantity then update set quantity = :quantity
+            when not matched then insert (order_id, product_id, quantity, unit_price)
+                values (:orderId, s.product_id, :quantity, s.unit_price)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    public int upsertLines(Long orderId, Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+        entityManager.flush();
+        MapSqlParameterSource[] batch = quantities.entrySet().stream()
+                .map(line -> new MapSqlParameterSource()
+                        .addValue("orderId", orderId)
+                        .addValue("productId", line.getKey())
+                        .addValue("quantity", line.getValue()))
+                .toArray(MapSqlParameterSource[]::new);
+        int[] counts = jdbcTemplate.batchUpdate(UPSERT_LINE, batch);
+        return Arrays.stream(counts)
+                .map(count -> count == Statement.SUCCESS_NO_INFO ? 1 : count)
+                .sum();
+    }
+}
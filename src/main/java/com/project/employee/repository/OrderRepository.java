@@ -1,24 +1,135 @@
 package com.project.employee.repository;
 
+import com.project.employee.dto.OrderSummaryDto;
 import com.project.employee.entity.OrderEntity;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import com.project.employee.enums.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<OrderEntity, Long>,
-                                         JpaSpecificationExecutor<OrderEntity> {
+public interface OrderRepository extends BaseRepository<OrderEntity, Long>, OrderLineBatchRepository {
+
+    String SUMMARY_FILTER = """
+           where (:createdDate is null or o.createdDate >= :createdDate)
+             and (:status is null or o.orderStatus = :status)
+             and (:productId is null or exists (
+                   select 1 from OrderLineEntity fl where fl.id.orderId = o.id and fl.id.productId = :productId))
+           """;
+
+    String SUMMARY_QUERY = """
+           select new com.project.employee.dto.OrderSummaryDto(
+                  o.id, o.orderStatus, o.createdDate,
+                  concat(c.firstName, ' ', c.lastName),
+                  coalesce(sum(l.quantity), 0L), sum(l.quantity * l.unitPrice))
+           from OrderEntity o
+           left join o.customer c
+           left join o.lines l
+           """ + SUMMARY_FILTER + """
+           group by o.id, o.orderStatus, o.createdDate, c.firstName, c.lastName
+           """;
 
     @Query("""
-           select distinct o 
-           from OrderEntity o 
-           left join fetch o.products 
+           select distinct o
+           from OrderEntity o
+           left join fetch o.lines l
+           left join fetch l.product
            where o.id = :id
            """)
     Optional<OrderEntity> findByIdWithProducts(@Param("id") Long id);
 
+    @Query("""
+           select distinct o
+           from OrderEntity o
+           left join fetch o.customer
+           left join fetch o.lines l
+           left join fetch l.product
+           where o.id in :ids
+           """)
+    List<OrderEntity> findAllWithCustomerAndProductsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+           select distinct o
+           from OrderEntity o
+           left join fetch o.customer
+           left join fetch o.lines l
+           left join fetch l.product
+           where o.id in :ids and o.createdDate >= :createdDate
+           """)
+    List<OrderEntity> findAllWithCustomerAndProductsByIdIn(@Param("ids") Collection<Long> ids,
+                                                           @Param("createdDate") LocalDateTime createdDate);
+
+    @Query(value = SUMMARY_QUERY, countQuery = "select count(o) from OrderEntity o " + SUMMARY_FILTER)
+    Page<OrderSummaryDto> findSummaries(@Param("createdDate") LocalDateTime createdDate,
+                                        @Param("status") OrderStatus status,
+                                        @Param("productId") Long productId,
+                                        Pageable pageable);
+
+    @Query(SUMMARY_QUERY)
+    Slice<OrderSummaryDto> findSummarySlice(@Param("createdDate") LocalDateTime createdDate,
+                                            @Param("status") OrderStatus status,
+                                            @Param("productId") Long productId,
+                                            Pageable pageable);
+
+    @Query("select l.id.productId from OrderLineEntity l where l.id.orderId = :orderId")
+    List<Long> findProductIds(@Param("orderId") Long orderId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "order_lines"))
+    @Query(value = """
+           merge into order_lines l
+           using (
+               select p.id as product_id, coalesce(p.price, 0) as unit_price
+               from products p
+               where p.id in (:productIds)
+           ) s on l.order_id = :orderId and l.product_id = s.product_id
+           when not matched then insert (order_id, product_id, quantity, unit_price)
+               values (:orderId, s.product_id, 1, s.unit_price)
+           """, nativeQuery = true)
+    int attachProducts(@Param("orderId") Long orderId, @Param("productIds") Collection<Long> productIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from OrderLineEntity l where l.id.orderId = :orderId and l.id.productId in :productIds")
+    int detachProducts(@Param("orderId") Long orderId, @Param("productIds") Collection<Long> productIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from OrderLineEntity l where l.id.orderId = :orderId")
+    int detachAllProducts(@Param("orderId") Long orderId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from OrderEntity o where o.id = :id and o.version = :version")
+    int deleteByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
+
+    @Query("select o.version from OrderEntity o where o.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update OrderEntity o set o.version = o.version + 1 where o.id = :id")
+    int incrementVersion(@Param("id") Long id);
+
+    @Query("""
+            select concat(cast(o.version as String), '.', cast(coalesce(c.version, 0) as String), '.',
+                          cast(coalesce(sum(p.version), 0) as String), '.',
+                          cast(coalesce(sum(l.quantity), 0) as String))
+            from OrderEntity o
+            left join o.customer c
+            left join o.lines l
+            left join l.product p
+            where o.id = :id
+            group by o.version, c.version
+            """)
+    Optional<String> findVersionTag(@Param("id") Long id);
+
 }
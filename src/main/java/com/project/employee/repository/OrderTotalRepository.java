@@ -0,0 +1,8 @@
+package com.project.employee.repository;
+
+import com.project.employee.entity.OrderTotalEntity;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderTotalRepository extends BaseRepository<OrderTotalEntity, Long> {
+}
@@ -1,11 +1,26 @@
 package com.project.employee.repository;
 
 import com.project.employee.entity.ProductEntity;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface ProductRepository extends JpaRepository<ProductEntity, Long>,
-                                        JpaSpecificationExecutor<ProductEntity> {
+public interface ProductRepository extends BaseRepository<ProductEntity, Long> {
+
+    @Query("select p.id from ProductEntity p where p.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select p.version from ProductEntity p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query(value = """
+           select exists(select 1 from order_lines where product_id = :id)
+               or exists(select 1 from order_lines_archive where product_id = :id)
+           """, nativeQuery = true)
+    boolean isReferencedByOrders(@Param("id") Long id);
 }
@@ -0,0 +1,6 @@
+package com.project.employee.routing;
+
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
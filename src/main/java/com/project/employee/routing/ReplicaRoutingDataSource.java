@@ -0,0 +1,37 @@
+package com.project.employee.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final Counter primary;
+    private final Counter replica;
+
+    public ReplicaRoutingDataSource(DataSource primaryDataSource, DataSource replicaDataSource,
+                                    MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primaryDataSource,
+                DataSourceRole.REPLICA, replicaDataSource));
+        setDefaultTargetDataSource(primaryDataSource);
+        setLenientFallback(false);
+        this.primary = meterRegistry.counter("app.datasource.routing", "role", "primary");
+        this.replica = meterRegistry.counter("app.datasource.routing", "role", "replica");
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadYourWritesContext.isPinnedToPrimary()) {
+            replica.increment();
+            return DataSourceRole.REPLICA;
+        }
+        primary.increment();
+        return DataSourceRole.PRIMARY;
+    }
+}
@@ -0,0 +1,148 @@
+package com.project.employee.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Slf4j
+public abstract class EmailSearchIndex {
+    private static final int GRAM_SIZE = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+    private final boolean enabled;
+    private final int maxHits;
+    private final Map<Long, String> emails = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> grams = new ConcurrentHashMap<>();
+
+    protected EmailSearchIndex(JdbcTemplate jdbcTemplate, String table, boolean enabled, int maxHits) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = table;
+        this.enabled = enabled;
+        this.maxHits = maxHits;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        log.warn("Индекс почты для таблицы {} хранится в памяти экземпляра и обновляется только его записями: "
+                + "при нескольких экземплярах или изменениях в обход сервиса новые записи не попадут в поиск", table);
+        long started = System.currentTimeMillis();
+        jdbcTemplate.query("select id, email from " + table,
+                (RowCallbackHandler) rs -> index(rs.getLong(1), rs.getString(2)));
+        log.info("Индекс почты для таблицы {} построен за {} мс: записей={}, n-грамм={}",
+                table, System.currentTimeMillis() - started, emails.size(), grams.size());
+    }
+
+    public void put(Long id, String email) {
+        if (!enabled || id == null || email == null) {
+            return;
+        }
+        afterCommit(() -> index(id, email));
+    }
+
+    public void remove(Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        afterCommit(() -> unindex(id));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
+    private synchronized void index(Long id, String email) {
+        unindex(id);
+        emails.put(id, email);
+        grams(email.toLowerCase(Locale.ROOT))
+                .forEach(gram -> grams.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id));
+    }
+
+    private synchronized void unindex(Long id) {
+        String email = emails.remove(id);
+        if (email == null) {
+            return;
+        }
+        grams(email.toLowerCase(Locale.ROOT)).forEach(gram -> {
+            Set<Long> ids = grams.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+            }
+        });
+    }
+
+    public Optional<Set<Long>> search(String emailLike, boolean ignoreCase) {
+        String needle = emailLike.toLowerCase(Locale.ROOT);
+        if (needle.length() < GRAM_SIZE) {
+            log.debug("Строка поиска '{}' короче n-граммы, поиск по таблице {} выполняется в БД", emailLike, table);
+            return Optional.empty();
+        }
+        Set<Long> hits = new HashSet<>();
+        for (Long id : candidates(needle)) {
+            if (matches(emails.get(id), emailLike, ignoreCase) && hits.add(id) && hits.size() > maxHits) {
+                log.debug("Поиск '{}' по таблице {} вернул больше {} совпадений, поиск выполняется в БД",
+                        emailLike, table, maxHits);
+                return Optional.empty();
+            }
+        }
+        return Optional.of(hits);
+    }
+
+    private Collection<Long> candidates(String needle) {
+        List<Set<Long>> postings = grams(needle).stream()
+                .map(gram -> grams.getOrDefault(gram, Set.of()))
+                .sorted(Comparator.comparingInt(Set::size))
+                .toList();
+        Set<Long> smallest = postings.get(0);
+        return smallest.stream()
+                .filter(id -> postings.stream().allMatch(ids -> ids.contains(id)))
+                .toList();
+    }
+
+    private static boolean matches(String email, String emailLike, boolean ignoreCase) {
+        if (email == null) {
+            return false;
+        }
+        return ignoreCase
+                ? email.toLowerCase(Locale.ROOT).contains(emailLike.toLowerCase(Locale.ROOT))
+                : email.contains(emailLike);
+    }
+
+    private static Set<String> grams(String value) {
+        return IntStream.rangeClosed(0, value.length() - GRAM_SIZE)
+                .mapToObj(i -> value.substring(i, i + GRAM_SIZE))
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,15 @@
+package com.project.employee.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class EmployeeEmailIndex extends EmailSearchIndex {
+
+    public EmployeeEmailIndex(JdbcTemplate jdbcTemplate,
+                              @Value("${app.search.email-index.enabled:false}") boolean enabled,
+                              @Value("${app.search.email-index.max-hits:1000}") int maxHits) {
+        super(jdbcTemplate, "employees", enabled, maxHits);
+    }
+}
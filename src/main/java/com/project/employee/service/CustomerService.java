@@ -4,63 +4,68 @@ import com.project.employee.dto.CustomerRequestDto;
 import com.project.employee.dto.CustomerResponseDto;
 import com.project.employee.dto.PageResponse;
 import com.project.employee.entity.CustomerEntity;
-import com.project.employee.entity.OrderEntity;
+import com.project.employee.exception.PreconditionFailedException;
 import com.project.employee.exception.ResourceNotFoundException;
 import com.project.employee.mappers.CustomerMapper;
 import com.project.employee.repository.CustomerRepository;
+import com.project.employee.search.CustomerEmailIndex;
 import com.project.employee.specification.CustomerSpecification;
+import com.project.employee.specification.FilterQuery;
+import com.project.employee.utility.ETags;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "app.service", percentiles = {0.5, 0.95, 0.99}, histogram = true)
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
     private final CustomerMapper mapper;
+    private final CustomerEmailIndex emailIndex;
 
     public CustomerResponseDto addCustomer(CustomerRequestDto customerRequestDto) {
         log.debug("Начало создания клиента: {}", customerRequestDto);
         CustomerEntity newEntity = mapper.toEntity(customerRequestDto);
         CustomerEntity savedEntity = customerRepository.save(newEntity);
+        emailIndex.put(savedEntity.getId(), savedEntity.getEmail());
         log.info("Клиент успешно создан: ID={}, Имя={}", savedEntity.getId(),
                 savedEntity.getFirstName() + " " + savedEntity.getLastName());
         return mapper.toResponseDto(savedEntity);
     }
 
+    @Transactional(readOnly = true)
     public PageResponse<CustomerResponseDto> getAllCustomers(
             String firstName,
             String lastName,
             String emailLike,
+            boolean emailIgnoreCase,
             String phoneNumber,
+            boolean withTotal,
             Pageable pageable
     ) {
-        Specification<CustomerEntity> specs = CustomerSpecification.
-                filter(firstName, lastName, emailLike, phoneNumber);
+        Set<Long> indexHits = emailLike != null && emailIndex.isEnabled()
+                ? emailIndex.search(emailLike, emailIgnoreCase).orElse(null)
+                : null;
+        FilterQuery<CustomerEntity> filter = CustomerSpecification.
+                query(firstName, lastName, emailLike, emailIgnoreCase, phoneNumber);
+        if (indexHits != null) {
+            filter = CustomerSpecification.idIn(filter, indexHits);
+        }
         log.debug("Поиск клиентов по фильтрам: firstName={}, lastName={}, emailLike={}, page={}",
                 firstName, lastName, emailLike, pageable.getPageNumber());
-        Page<CustomerEntity> page = customerRepository.findAll(specs, pageable);
-        Page<CustomerResponseDto> dtoPage = page.map(mapper::toResponseDto);
-        return toPageResponse(dtoPage);
-    }
-
-    private <T> PageResponse<T> toPageResponse(Page<T> page) {
-        var response = new PageResponse<T>();
-        response.setContent(page.getContent());
-        response.setPageNumber(page.getNumber());
-        response.setPageSize(page.getSize());
-        response.setTotalElements(page.getTotalElements());
-        response.setTotalPages(page.getTotalPages());
-        response.setFirst(page.isFirst());
-        response.setLast(page.isLast());
-        return response;
+        if (withTotal) {
+            return PageResponse.fromPage(customerRepository.findAll(filter, pageable).map(mapper::toResponseDto));
+        }
+        return PageResponse.fromSlice(customerRepository.findSlice(filter, pageable).map(mapper::toResponseDto));
     }
 
     public CustomerResponseDto getCustomerById(Long id) {
@@ -72,30 +77,55 @@ public class CustomerService {
         return mapper.toResponseDto(customerEntity);
     }
 
-    public Long removeCustomer(Long id) {
-        CustomerEntity customerEntity = customerRepository.findById(id).
+    public String getCustomerETag(Long id) {
+        return customerRepository.findVersionTag(id)
+                .map(ETags::of)
+                .orElseThrow(() -> {
+                    log.warn("Клиент с ID: {} не найден", id);
+                    return new ResourceNotFoundException("Клиент с id: " + id + " не найден");
+                });
+    }
+
+    private void checkIfMatch(Long id, String ifMatch) {
+        if (ifMatch != null && !ETags.matches(ifMatch, getCustomerETag(id))) {
+            log.warn("Клиент с ID: {} был изменен, If-Match: {} не совпадает", id, ifMatch);
+            throw new PreconditionFailedException("Клиент с id: " + id + " был изменен");
+        }
+    }
+
+    @Transactional
+    public Long removeCustomer(Long id, String ifMatch) {
+        Long version = customerRepository.findVersionById(id).
                 orElseThrow(() -> {
                     log.warn("Клиент с ID: {} не найден", id);
                     return new ResourceNotFoundException("Клиент с id: " + id + " не найден");
                 });
+        checkIfMatch(id, ifMatch);
+        if (customerRepository.hasOrders(id)) {
+            log.warn("Нельзя удалить клиента с ID={}, потому что у него есть заказы", id);
+            throw new IllegalStateException("Нельзя удалить клиента с ID: " + id +
+                                            " ,потому что у него есть заказы");
+        }
         log.info("Удаление клиента с ID: {}", id);
-        List<OrderEntity> orders = customerEntity.getOrders();
-        if (orders != null && !orders.isEmpty()) {
-            log.debug("Отвязка клиента от {} заказов", orders.size());
-            orders.forEach(order -> order.setCustomer(null));
+        if (customerRepository.deleteByIdAndVersion(id, version) == 0) {
+            log.warn("Клиент с ID: {} был изменен или удален во время удаления", id);
+            if (ifMatch != null) {
+                throw new PreconditionFailedException("Клиент с id: " + id + " был изменен");
+            }
+            throw new ObjectOptimisticLockingFailureException(CustomerEntity.class, id);
         }
-        customerEntity.getOrders().clear();
-        customerRepository.delete(customerEntity);
+        emailIndex.remove(id);
         log.info("Клиент с ID: {} успешно удален", id);
-        return customerEntity.getId();
+        return id;
     }
 
-    public CustomerResponseDto updateCustomer(Long id, CustomerRequestDto dto) {
+    public CustomerResponseDto updateCustomer(Long id, CustomerRequestDto dto, String ifMatch) {
         CustomerEntity customerEntity = customerRepository.findById(id).
                 orElseThrow(() -> {
                     log.warn("Клиент с ID: {} не найден", id);
                     return new ResourceNotFoundException("Клиент с id: " + id + " не найден");
                 });
+        checkIfMatch(id, ifMatch);
         log.debug("Начало обновления данных клиента с ID: {}", id);
         boolean updated = false;
         if (dto.getFirstName() != null && !dto.getFirstName().equals(customerEntity.getFirstName())) {
@@ -123,6 +153,7 @@ public class CustomerService {
             return mapper.toResponseDto(customerEntity);
         }
         CustomerEntity updatedEntity = customerRepository.save(customerEntity);
+        emailIndex.put(updatedEntity.getId(), updatedEntity.getEmail());
         log.info("Данные клиента с ID: {} успешно обновлены", id);
         return mapper.toResponseDto(updatedEntity);
     }
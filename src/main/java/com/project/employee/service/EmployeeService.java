@@ -1,63 +1,79 @@
 package com.project.employee.service;
 
+import com.project.employee.audit.AuditAction;
+import com.project.employee.audit.AuditLog;
 import com.project.employee.dto.EmployeeRequestDto;
 import com.project.employee.dto.EmployeeResponseDto;
 import com.project.employee.dto.PageResponse;
 import com.project.employee.entity.EmployeeEntity;
 import com.project.employee.enums.EmployeeRole;
+import com.project.employee.exception.PreconditionFailedException;
 import com.project.employee.exception.ResourceNotFoundException;
 import com.project.employee.mappers.EmployeeMapper;
 import com.project.employee.repository.EmployeeRepository;
+import com.project.employee.search.EmployeeEmailIndex;
 import com.project.employee.specification.EmployeeSpecification;
+import com.project.employee.specification.FilterQuery;
+import com.project.employee.utility.ETags;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "app.service", percentiles = {0.5, 0.95, 0.99}, histogram = true)
 public class EmployeeService {
+    private static final String AUDIT_ENTITY = "Employee";
+    private static final List<String> CREATED_FIELDS = List.of("firstName", "lastName", "email", "password", "role");
 
     private final EmployeeRepository employeeRepository;
     private final EmployeeMapper mapper;
+    private final EmployeeEmailIndex emailIndex;
+    private final AuditLog auditLog;
 
     public EmployeeResponseDto addEmployee(EmployeeRequestDto employeeRequestDto) {
         log.debug("Начало создания сотрудника: {}", employeeRequestDto);
         EmployeeEntity newEntity = mapper.toEntity(employeeRequestDto);
         EmployeeEntity savedEntity = employeeRepository.save(newEntity);
-        log.info("Сотрудник успешно создан: ID={}, Имя={}", savedEntity.getId(),
+        emailIndex.put(savedEntity.getId(), savedEntity.getEmail());
+        auditLog.record(AUDIT_ENTITY, savedEntity.getId(), AuditAction.CREATE, CREATED_FIELDS);
+        log.debug("Сотрудник успешно создан: ID={}, Имя={}", savedEntity.getId(),
                 savedEntity.getFirstName() + " " + savedEntity.getLastName());
         return mapper.toResponseDto(savedEntity);
     }
 
+    @Transactional(readOnly = true)
     public PageResponse<EmployeeResponseDto> getEmployees(
             String firstName,
             String lastName,
             EmployeeRole role,
             String emailLike,
+            boolean emailIgnoreCase,
+            boolean withTotal,
             Pageable pageable
     ) {
-        Specification<EmployeeEntity> specs = EmployeeSpecification.filter(firstName, lastName, emailLike, role);
+        Set<Long> indexHits = emailLike != null && emailIndex.isEnabled()
+                ? emailIndex.search(emailLike, emailIgnoreCase).orElse(null)
+                : null;
+        FilterQuery<EmployeeEntity> filter = EmployeeSpecification.query(
+                firstName, lastName, emailLike, emailIgnoreCase, role);
+        if (indexHits != null) {
+            filter = EmployeeSpecification.idIn(filter, indexHits);
+        }
         log.debug("Поиск сотрудников по фильтрам: firstName={}, lastName={}, emailLike={}, page={}",
                 firstName, lastName, emailLike, pageable.getPageNumber());
-        Page<EmployeeEntity> pageEntity = employeeRepository.findAll(specs, pageable);
-        Page<EmployeeResponseDto> dtoPage = pageEntity.map(mapper::toResponseDto);
-        return toPageResponse(dtoPage);
-    }
-
-    private <T> PageResponse<T> toPageResponse(Page<T> page) {
-        var response = new PageResponse<T>();
-        response.setContent(page.getContent());
-        response.setPageNumber(page.getNumber());
-        response.setPageSize(page.getSize());
-        response.setTotalElements(page.getTotalElements());
-        response.setTotalPages(page.getTotalPages());
-        response.setFirst(page.isFirst());
-        response.setLast(page.isLast());
-        return response;
+        if (withTotal) {
+            return PageResponse.fromPage(employeeRepository.findAll(filter, pageable).map(mapper::toResponseDto));
+        }
+        return PageResponse.fromSlice(employeeRepository.findSlice(filter, pageable).map(mapper::toResponseDto));
     }
 
     public EmployeeResponseDto getEmployeeById(Long id) {
@@ -69,59 +85,81 @@ public class EmployeeService {
         return mapper.toResponseDto(entity);
     }
 
-    public Long removeEmployee(Long id) {
+    public String getEmployeeETag(Long id) {
+        return employeeRepository.findVersionById(id)
+                .map(ETags::of)
+                .orElseThrow(() -> {
+                    log.warn("Сотрудник с ID: {} не найден", id);
+                    return new ResourceNotFoundException("Сотрудник с id: " + id + " не найден");
+                });
+    }
+
+    private void checkIfMatch(EmployeeEntity entity, String ifMatch) {
+        if (!ETags.matches(ifMatch, ETags.of(entity.getVersion()))) {
+            log.warn("Сотрудник с ID: {} был изменен, If-Match: {} не совпадает", entity.getId(), ifMatch);
+            throw new PreconditionFailedException("Сотрудник с id: " + entity.getId() + " был изменен");
+        }
+    }
+
+    public Long removeEmployee(Long id, String ifMatch) {
         EmployeeEntity employeeEntity = employeeRepository.findById(id).
                 orElseThrow(() -> {
                     log.warn("Сотрудник с ID: {} не найден", id);
                     return new ResourceNotFoundException("Сотрудник с id: " + id + " не найден");
                 });
-        log.info("Удаление сотрудника с ID: {}", id);
+        checkIfMatch(employeeEntity, ifMatch);
+        log.debug("Удаление сотрудника с ID: {}", id);
         employeeRepository.delete(employeeEntity);
-        log.info("Сотрудник с ID: {} успешно удален", id);
+        emailIndex.remove(employeeEntity.getId());
+        auditLog.record(AUDIT_ENTITY, id, AuditAction.DELETE, List.of());
+        log.debug("Сотрудник с ID: {} успешно удален", id);
         return employeeEntity.getId();
     }
 
-    public EmployeeResponseDto updateEmployee(Long id, EmployeeRequestDto dto) {
+    public EmployeeResponseDto updateEmployee(Long id, EmployeeRequestDto dto, String ifMatch) {
         EmployeeEntity entity = employeeRepository.findById(id).
                 orElseThrow(() -> {
                     log.warn("Клиент с ID: {} не найден", id);
                     return new ResourceNotFoundException("Клиент с id: " + id + " не найден");
                 });
+        checkIfMatch(entity, ifMatch);
         log.debug("Начало обновления данных сотрудника с ID: {}", id);
-        boolean updated = false;
+        List<String> changed = new ArrayList<>();
 
         if (dto.getFirstName() != null && !dto.getFirstName().equals(entity.getFirstName())) {
             entity.setFirstName(dto.getFirstName());
             log.debug("Обновлено имя: {}",  dto.getFirstName());
-            updated = true;
+            changed.add("firstName");
         }
         if (dto.getLastName() != null && !dto.getLastName().equals(entity.getLastName())) {
             entity.setLastName(dto.getLastName());
             log.debug("Обновлена фамилия: {}",  dto.getLastName());
-            updated = true;
+            changed.add("lastName");
         }
         if (dto.getEmail() != null && !dto.getEmail().equals(entity.getEmail())) {
             entity.setEmail(dto.getEmail());
             log.debug("Обновлена почта: {}",  dto.getEmail());
-            updated = true;
+            changed.add("email");
         }
         if (dto.getPassword() != null && !dto.getPassword().isEmpty() &&
                 !dto.getPassword().equals(entity.getPassword())) {
             entity.setPassword(dto.getPassword());
             log.debug("Обновлен пароль: {}",  dto.getPassword());
-            updated = true;
+            changed.add("password");
         }
         if (dto.getRole() != null && !dto.getRole().equals(entity.getRole())) {
             entity.setRole(dto.getRole());
             log.debug("Обновлена должность: {}",  dto.getRole());
-            updated = true;
+            changed.add("role");
         }
-        if (!updated) {
-            log.info("Ни одно поле не было изменено для сотрудника с ID: {}", id);
+        if (changed.isEmpty()) {
+            log.debug("Ни одно поле не было изменено для сотрудника с ID: {}", id);
             return mapper.toResponseDto(entity);
         }
         EmployeeEntity updatedEntity = employeeRepository.save(entity);
-        log.info("Данные сотрудника с ID: {} успешно обновлены", id);
+        emailIndex.put(updatedEntity.getId(), updatedEntity.getEmail());
+        auditLog.record(AUDIT_ENTITY, id, AuditAction.UPDATE, changed);
+        log.debug("Данные сотрудника с ID: {} успешно обновлены", id);
         return mapper.toResponseDto(updatedEntity);
     }
 }
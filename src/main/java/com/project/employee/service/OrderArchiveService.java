@@ -0,0 +1,92 @@
+package com.project.employee.service;
+
+import com.project.employee.enums.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "app.orders.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderArchiveService {
+    public static final List<String> ARCHIVABLE_STATUSES =
+            List.of(OrderStatus.COMPLETED.name(), OrderStatus.CANCELED.name());
+
+    private static final String ARCHIVE_BATCH = """
+            with batch as (
+                select id, created_date
+                from orders
+                where status in (:statuses) and created_date < :cutoff
+                order by created_date, id
+                limit :batchSize
+                for update skip locked
+            ), archived_orders as (
+                insert into orders_archive (id, customer_id, status, created_date, version, archived_at)
+                select o.id, o.customer_id, o.status, o.created_date, o.version, localtimestamp
+                from orders o
+                join batch b on b.id = o.id and b.created_date = o.created_date
+            ), archived_lines as (
+                insert into order_lines_archive (order_id, product_id, quantity, unit_price)
+                select l.order_id, l.product_id, l.quantity, l.unit_price
+                from order_lines l
+                join batch b on b.id = l.order_id
+            ), deleted_lines as (
+                delete from order_lines l
+                using batch b
+                where l.order_id = b.id
+            )
+            delete from orders o
+            using batch b
+            where o.id = b.id and o.created_date = b.created_date
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int olderThanMonths;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter archived;
+
+    public OrderArchiveService(NamedParameterJdbcTemplate jdbcTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.orders.archive.older-than-months:6}") int olderThanMonths,
+                               @Value("${app.orders.archive.batch-size:500}") int batchSize,
+                               @Value("${app.orders.archive.max-batches:1000}") int maxBatches) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.olderThanMonths = olderThanMonths;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.archived = meterRegistry.counter("app.orders.archived");
+    }
+
+    @Scheduled(cron = "${app.orders.archive.cron:0 30 3 * * *}")
+    public void archive() {
+        archiveOlderThan(LocalDateTime.now().minusMonths(olderThanMonths));
+    }
+
+    public int archiveOlderThan(LocalDateTime cutoff) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("statuses", ARCHIVABLE_STATUSES)
+                .addValue("cutoff", cutoff)
+                .addValue("batchSize", batchSize);
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int moved = jdbcTemplate.update(ARCHIVE_BATCH, params);
+            total += moved;
+            archived.increment(moved);
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        log.info("Архивировано заказов, созданных до {}: {}", cutoff, total);
+        return total;
+    }
+}
@@ -0,0 +1,128 @@
+package com.project.employee.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "app.partitions.orders.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderPartitionService {
+    private static final String POSTGRESQL = "PostgreSQL";
+    private static final Pattern PARTITION_NAME = Pattern.compile("orders_p(\\d{4})_(\\d{2})");
+    private static final String FIND_PARTITIONS = """
+            select c.relname
+            from pg_inherits i
+            join pg_class c on c.oid = i.inhrelid
+            where i.inhparent = 'orders'::regclass
+            order by c.relname
+            """;
+    private static final String TERMINAL_STATUSES = OrderArchiveService.ARCHIVABLE_STATUSES.stream()
+            .map(status -> "'" + status + "'")
+            .collect(Collectors.joining(", "));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private volatile Boolean partitioned;
+
+    public OrderPartitionService(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${app.partitions.orders.months-ahead:3}") int monthsAhead,
+                                 @Value("${app.partitions.orders.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.partitions.orders.cron:0 0 3 * * *}")
+    public void maintain() {
+        if (!partitioned()) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        createPartitions(current, current.plusMonths(monthsAhead));
+        if (retentionMonths > 0) {
+            archivePartitionsBefore(current.minusMonths(retentionMonths));
+        }
+    }
+
+    private boolean partitioned() {
+        if (partitioned == null) {
+            String database = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            partitioned = POSTGRESQL.equals(database);
+            if (!partitioned) {
+                log.info("Таблица заказов в {} не партиционирована, обслуживание партиций пропущено", database);
+            }
+        }
+        return partitioned;
+    }
+
+    public List<String> createPartitions(YearMonth from, YearMonth to) {
+        List<String> partitions = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            partitions.add(jdbcTemplate.queryForObject("select create_orders_partition(?)", String.class,
+                    month.atDay(1)));
+        }
+        log.debug("Партиции заказов подготовлены: {}", partitions);
+        return partitions;
+    }
+
+    public List<String> archivePartitionsBefore(YearMonth cutoff) {
+        List<String> archived = new ArrayList<>();
+        for (String partition : jdbcTemplate.queryForList(FIND_PARTITIONS, String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.isBefore(cutoff) && archivePartition(partition, month)) {
+                archived.add(partition);
+            }
+        }
+        return archived;
+    }
+
+    private boolean archivePartition(String partition, YearMonth month) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            int orders = jdbcTemplate.update("insert into orders_archive (id, customer_id, status, created_date, version) "
+                    + "select id, customer_id, status, created_date, version from " + partition
+                    + " where status in (" + TERMINAL_STATUSES + ")");
+            int lines = jdbcTemplate.update("insert into order_lines_archive (order_id, product_id, quantity, unit_price) "
+                    + "select l.order_id, l.product_id, l.quantity, l.unit_price from order_lines l join "
+                    + partition + " o on o.id = l.order_id where o.status in (" + TERMINAL_STATUSES + ")");
+            jdbcTemplate.update("delete from order_lines l using " + partition
+                    + " o where o.id = l.order_id and o.status in (" + TERMINAL_STATUSES + ")");
+            jdbcTemplate.update("delete from " + partition + " where status in (" + TERMINAL_STATUSES + ")");
+            Integer live = jdbcTemplate.queryForObject("select count(*) from " + partition, Integer.class);
+            if (live != null && live > 0) {
+                log.warn("Партиция {} за {} не удалена: в ней остались незавершенные заказы ({}), "
+                        + "в архив перенесено заказов: {}", partition, month, live, orders);
+                return false;
+            }
+            jdbcTemplate.execute("alter table orders detach partition " + partition);
+            jdbcTemplate.execute("drop table " + partition);
+            log.info("Партиция {} за {} перенесена в архив и удалена, заказов: {}, строк заказов: {}",
+                    partition, month, orders, lines);
+            return true;
+        }));
+    }
+}
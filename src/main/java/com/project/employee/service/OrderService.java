@@ -1,39 +1,88 @@
 package com.project.employee.service;
 
+import com.project.employee.audit.AuditAction;
+import com.project.employee.audit.AuditLog;
+import com.project.employee.dto.OrderBatchResultDto;
+import com.project.employee.dto.OrderLineRequestDto;
 import com.project.employee.dto.OrderRequestDto;
 import com.project.employee.dto.OrderResponseDto;
+import com.project.employee.dto.OrderStatusTransitionRequestDto;
+import com.project.employee.dto.OrderStatusTransitionResultDto;
+import com.project.employee.dto.OrderSummaryDto;
 import com.project.employee.dto.PageResponse;
 import com.project.employee.dto.ProductResponseDto;
 import com.project.employee.entity.CustomerEntity;
 import com.project.employee.entity.OrderEntity;
 import com.project.employee.entity.ProductEntity;
 import com.project.employee.enums.OrderStatus;
+import com.project.employee.exception.BadRequestException;
+import com.project.employee.exception.PreconditionFailedException;
 import com.project.employee.exception.ResourceNotFoundException;
 import com.project.employee.mappers.OrderMapper;
+import com.project.employee.repository.ArchivedOrderRepository;
 import com.project.employee.repository.CustomerRepository;
 import com.project.employee.repository.OrderRepository;
 import com.project.employee.repository.ProductRepository;
+import com.project.employee.specification.FilterQuery;
 import com.project.employee.specification.OrderSpecification;
+import com.project.employee.utility.ETags;
+import com.project.employee.utility.OrderCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "app.service", percentiles = {0.5, 0.95, 0.99}, histogram = true)
 public class OrderService {
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.asc("createdDate"), Sort.Order.asc("id"));
+    private static final int MAX_BATCH_SIZE = 5000;
+    private static final int EXPORT_FETCH_SIZE = 500;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final int TRANSITION_CHUNK_SIZE = 500;
+    private static final String AUDIT_ENTITY = "Order";
+    private static final List<String> CREATED_FIELDS = List.of("customer", "orderStatus");
+    private static final List<String> PRODUCTS_FIELD = List.of("products");
+    private static final List<String> STATUS_FIELD = List.of("orderStatus");
+
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
     private final ProductRepository productRepository;
     private final OrderMapper mapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final OrderTotalsService orderTotalsService;
+    private final AuditLog auditLog;
+    private final ArchivedOrderRepository archivedOrderRepository;
 
+    @Transactional
     public OrderResponseDto addOrder(OrderRequestDto orderRequestDto) {
         CustomerEntity customerEntity = customerRepository.findById(orderRequestDto.getCustomerId()).
                 orElseThrow(() -> {
@@ -47,11 +96,86 @@ public class OrderService {
         newEntity.setOrderStatus(orderRequestDto.getOrderStatus());
         newEntity.setCustomer(customerEntity);
         OrderEntity savedEntity = orderRepository.save(newEntity);
-        log.info("Заказ успешно создан: ID={}", savedEntity.getId());
+        orderTotalsService.refreshOrders(List.of(savedEntity.getId()));
+        auditLog.record(AUDIT_ENTITY, savedEntity.getId(), AuditAction.CREATE, CREATED_FIELDS);
+        log.debug("Заказ успешно создан: ID={}", savedEntity.getId());
         return mapper.toResponseDto(savedEntity);
     }
 
-    public OrderResponseDto addProductToOrder(Long orderId, Long productId) {
+    @Transactional
+    public List<OrderBatchResultDto> addOrders(List<OrderRequestDto> requestDtos) {
+        if (requestDtos == null || requestDtos.isEmpty()) {
+            throw new BadRequestException("Список заказов не должен быть пустым");
+        }
+        if (requestDtos.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("В одном запросе можно создать не более " + MAX_BATCH_SIZE + " заказов");
+        }
+        log.debug("Начало пакетного создания {} заказов", requestDtos.size());
+        Set<Long> customerIds = requestDtos.stream()
+                .filter(Objects::nonNull)
+                .map(OrderRequestDto::getCustomerId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, CustomerEntity> customers = customerRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(CustomerEntity::getId, Function.identity()));
+
+        List<OrderBatchResultDto> results = new ArrayList<>(requestDtos.size());
+        List<OrderBatchResultDto> pending = new ArrayList<>();
+        List<OrderEntity> newEntities = new ArrayList<>();
+        for (int i = 0; i < requestDtos.size(); i++) {
+            OrderRequestDto dto = requestDtos.get(i);
+            String error = validateBatchItem(dto, customers);
+            if (error != null) {
+                log.warn("Заказ #{} из пакета отклонен: {}", i, error);
+                results.add(OrderBatchResultDto.failed(i, error));
+                continue;
+            }
+            OrderEntity newEntity = mapper.toEntity(dto);
+            newEntity.setOrderStatus(dto.getOrderStatus());
+            newEntity.setCustomer(customers.get(dto.getCustomerId()));
+            newEntities.add(newEntity);
+
+            var result = new OrderBatchResultDto();
+            result.setIndex(i);
+            result.setCreated(true);
+            results.add(result);
+            pending.add(result);
+        }
+
+        List<OrderEntity> savedEntities = orderRepository.saveAll(newEntities);
+        orderTotalsService.refreshOrders(savedEntities.stream().map(OrderEntity::getId).toList());
+        for (int i = 0; i < savedEntities.size(); i++) {
+            pending.get(i).setOrder(mapper.toResponseDto(savedEntities.get(i)));
+            auditLog.record(AUDIT_ENTITY, savedEntities.get(i).getId(), AuditAction.CREATE, CREATED_FIELDS);
+        }
+        log.debug("Пакетно создано заказов: {} из {}", savedEntities.size(), requestDtos.size());
+        return results;
+    }
+
+    private String validateBatchItem(OrderRequestDto dto, Map<Long, CustomerEntity> customers) {
+        if (dto == null) {
+            return "Заказ не должен быть пустым";
+        }
+        Set<ConstraintViolation<OrderRequestDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .collect(Collectors.joining("; "));
+        }
+        if (dto.getCustomerId() == null) {
+            return "Клиент заказа не указан";
+        }
+        if (!customers.containsKey(dto.getCustomerId())) {
+            return "Клиент с id: " + dto.getCustomerId() + " не найден";
+        }
+        return null;
+    }
+
+    @Transactional
+    public OrderResponseDto addProductToOrder(Long orderId, Long productId, int quantity) {
+        if (quantity < 1) {
+            throw new BadRequestException("Количество товара должно быть больше нуля");
+        }
         OrderEntity orderEntity = orderRepository.findById(orderId).
                 orElseThrow(() -> {
                     log.warn("Заказ с ID: {} не найден", orderId);
@@ -62,58 +186,256 @@ public class OrderService {
                     log.warn("Товар с ID: {} не найден", productId);
                     return new ResourceNotFoundException("Товар с id: " + productId + " не найден");
                 });
-        log.info("Добавление товара в заказ");
-        orderEntity.addProduct(productEntity);
+        log.debug("Добавление товара в заказ");
+        orderEntity.addProduct(productEntity, quantity);
         OrderEntity savedEntity = orderRepository.save(orderEntity);
-        log.info("Товар с ID={} успешно добавлен в заказ с ID={}", productId, orderId);
+        orderTotalsService.refreshOrders(List.of(orderId));
+        auditLog.record(AUDIT_ENTITY, orderId, AuditAction.UPDATE, PRODUCTS_FIELD);
+        log.debug("Товар с ID={} в количестве {} успешно добавлен в заказ с ID={}", productId, quantity, orderId);
         return mapper.toResponseDto(savedEntity);
     }
 
+    @Transactional
+    public OrderResponseDto replaceOrderProducts(Long orderId, Set<Long> productIds) {
+        if (!orderRepository.existsById(orderId)) {
+            log.warn("Заказ с ID: {} не найден", orderId);
+            throw new ResourceNotFoundException("Заказ с id: " + orderId + " не найден");
+        }
+        Set<Long> requested = productIds == null ? Set.of() : new HashSet<>(productIds);
+        if (!requested.isEmpty()) {
+            Set<Long> missing = new HashSet<>(requested);
+            productRepository.findExistingIds(requested).forEach(missing::remove);
+            if (!missing.isEmpty()) {
+                log.warn("Товары с ID: {} не найдены", missing);
+                throw new ResourceNotFoundException("Товары с id: " + missing + " не найдены");
+            }
+        }
+
+        Set<Long> current = new HashSet<>(orderRepository.findProductIds(orderId));
+        Set<Long> toAttach = new HashSet<>(requested);
+        toAttach.removeAll(current);
+        Set<Long> toDetach = new HashSet<>(current);
+        toDetach.removeAll(requested);
+        log.debug("Замена товаров в заказе с ID: {}: добавить={}, удалить={}", orderId, toAttach, toDetach);
+        if (!toDetach.isEmpty()) {
+            orderRepository.detachProducts(orderId, toDetach);
+        }
+        if (!toAttach.isEmpty()) {
+            orderRepository.attachProducts(orderId, toAttach);
+        }
+        orderTotalsService.refreshOrders(List.of(orderId));
+        if (!toAttach.isEmpty() || !toDetach.isEmpty()) {
+            orderRepository.incrementVersion(orderId);
+            auditLog.record(AUDIT_ENTITY, orderId, AuditAction.UPDATE, PRODUCTS_FIELD);
+        }
+        log.debug("Товары заказа с ID={} обновлены: добавлено {}, удалено {}", orderId, toAttach.size(), toDetach.size());
+        return mapper.toResponseDto(findWithCustomerAndProducts(List.of(orderId)).get(orderId));
+    }
+
+    @Transactional
+    public OrderResponseDto replaceOrderLines(Long orderId, List<OrderLineRequestDto> lines) {
+        if (!orderRepository.existsById(orderId)) {
+            log.warn("Заказ с ID: {} не найден", orderId);
+            throw new ResourceNotFoundException("Заказ с id: " + orderId + " не найден");
+        }
+        Map<Long, Integer> requested = new LinkedHashMap<>();
+        for (OrderLineRequestDto line : lines) {
+            requested.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        if (!requested.isEmpty()) {
+            Set<Long> missing = new HashSet<>(requested.keySet());
+            productRepository.findExistingIds(requested.keySet()).forEach(missing::remove);
+            if (!missing.isEmpty()) {
+                log.warn("Товары с ID: {} не найдены", missing);
+                throw new ResourceNotFoundException("Товары с id: " + missing + " не найдены");
+            }
+        }
+
+        Set<Long> toDetach = new HashSet<>(orderRepository.findProductIds(orderId));
+        toDetach.removeAll(requested.keySet());
+        log.debug("Замена позиций заказа с ID: {}: обновить={}, удалить={}", orderId, requested, toDetach);
+        int changed = 0;
+        if (!toDetach.isEmpty()) {
+            changed += orderRepository.detachProducts(orderId, toDetach);
+        }
+        changed += orderRepository.upsertLines(orderId, requested);
+        orderTotalsService.refreshOrders(List.of(orderId));
+        if (changed > 0) {
+            orderRepository.incrementVersion(orderId);
+            auditLog.record(AUDIT_ENTITY, orderId, AuditAction.UPDATE, PRODUCTS_FIELD);
+        }
+        log.debug("Позиции заказа с ID={} обновлены, изменено строк: {}", orderId, changed);
+        return mapper.toResponseDto(findWithCustomerAndProducts(List.of(orderId)).get(orderId));
+    }
+
+    @Transactional(readOnly = true)
     public PageResponse<OrderResponseDto> getAllOrders(
             LocalDateTime createdDate,
             OrderStatus status,
             Long productId,
+            boolean withTotal,
             Pageable pageable
     ) {
-        Specification<OrderEntity> specs = OrderSpecification.filter(createdDate, status, productId);
+        FilterQuery<OrderEntity> filter = OrderSpecification.query(createdDate, status, productId);
         log.debug("Поиск заказов по фильтрам: created date={}, status={}, product ID={}, page={}",
                 createdDate, status, productId, pageable.getPageNumber());
-        Page<OrderEntity> page = orderRepository.findAll(specs, pageable);
-        Page<OrderResponseDto> dtoPage = page.map(mapper::toResponseDto);
-        return toPageResponse(dtoPage);
-    }
-
-    private <T> PageResponse<T> toPageResponse(Page<T> page) {
-        var response = new PageResponse<T>();
-        response.setContent(page.getContent());
-        response.setPageNumber(page.getNumber());
-        response.setPageSize(page.getSize());
-        response.setTotalElements(page.getTotalElements());
-        response.setTotalPages(page.getTotalPages());
-        response.setFirst(page.isFirst());
-        response.setLast(page.isLast());
+        if (withTotal) {
+            Page<Long> ids = orderRepository.findIds(filter, pageable);
+            Map<Long, OrderEntity> orders = findWithCustomerAndProducts(ids.getContent(), createdDate);
+            return PageResponse.fromPage(ids.map(id -> mapper.toResponseDto(orders.get(id))));
+        }
+        Slice<Long> ids = orderRepository.findIdSlice(filter, pageable);
+        Map<Long, OrderEntity> orders = findWithCustomerAndProducts(ids.getContent(), createdDate);
+        return PageResponse.fromSlice(ids.map(id -> mapper.toResponseDto(orders.get(id))));
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<OrderSummaryDto> getOrderSummaries(
+            LocalDateTime createdDate,
+            OrderStatus status,
+            Long productId,
+            boolean withTotal,
+            Pageable pageable
+    ) {
+        log.debug("Поиск сводки заказов по фильтрам: created date={}, status={}, product ID={}, page={}",
+                createdDate, status, productId, pageable.getPageNumber());
+        if (withTotal) {
+            return PageResponse.fromPage(orderRepository.findSummaries(createdDate, status, productId, pageable));
+        }
+        return PageResponse.fromSlice(orderRepository.findSummarySlice(createdDate, status, productId, pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<OrderResponseDto> getAllOrdersAfter(
+            LocalDateTime createdDate,
+            OrderStatus status,
+            Long productId,
+            String after,
+            int size
+    ) {
+        boolean first = after == null || after.isBlank();
+        Specification<OrderEntity> specs = OrderSpecification.filter(createdDate, status, productId);
+        if (!first) {
+            OrderCursor cursor = OrderCursor.decode(after);
+            specs = specs.and(OrderSpecification.after(cursor.createdDate(), cursor.id()));
+        }
+        log.debug("Поиск заказов по курсору: created date={}, status={}, product ID={}, after={}",
+                createdDate, status, productId, after);
+        Slice<Long> ids = orderRepository.findIdSlice(specs, PageRequest.of(0, size, KEYSET_SORT));
+        Map<Long, OrderEntity> orders = findWithCustomerAndProducts(ids.getContent(), createdDate);
+
+        PageResponse<OrderResponseDto> response = PageResponse.fromSlice(
+                ids.map(id -> mapper.toResponseDto(orders.get(id))));
+        response.setFirst(first);
+        if (ids.hasNext()) {
+            OrderEntity lastRow = orders.get(ids.getContent().get(ids.getNumberOfElements() - 1));
+            response.setNextCursor(new OrderCursor(lastRow.getCreatedDate(), lastRow.getId()).encode());
+        }
         return response;
     }
 
+    @Transactional(readOnly = true)
+    public long exportOrders(
+            LocalDateTime createdDate,
+            OrderStatus status,
+            Long productId,
+            Consumer<OrderResponseDto> sink
+    ) {
+        Specification<OrderEntity> specs = OrderSpecification.filter(createdDate, status, productId);
+        log.info("Начало выгрузки заказов: created date={}, status={}, product ID={}",
+                createdDate, status, productId);
+        long exported = 0;
+        List<Long> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        try (Stream<Long> ids = orderRepository.streamIds(specs, Sort.by("id"), EXPORT_FETCH_SIZE)) {
+            Iterator<Long> iterator = ids.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE || !iterator.hasNext()) {
+                    exported += exportChunk(chunk, sink);
+                    chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+                    entityManager.clear();
+                }
+            }
+        }
+        log.info("Выгрузка заказов завершена, выгружено: {}", exported);
+        return exported;
+    }
+
+    private int exportChunk(List<Long> ids, Consumer<OrderResponseDto> sink) {
+        Map<Long, OrderEntity> orders = findWithCustomerAndProducts(ids);
+        ids.forEach(id -> sink.accept(mapper.toResponseDto(orders.get(id))));
+        return ids.size();
+    }
+
+    private Map<Long, OrderEntity> findWithCustomerAndProducts(List<Long> ids) {
+        return findWithCustomerAndProducts(ids, null);
+    }
+
+    private Map<Long, OrderEntity> findWithCustomerAndProducts(List<Long> ids, LocalDateTime createdDate) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        List<OrderEntity> orders = createdDate == null
+                ? orderRepository.findAllWithCustomerAndProductsByIdIn(ids)
+                : orderRepository.findAllWithCustomerAndProductsByIdIn(ids, createdDate);
+        return orders.stream()
+                .collect(Collectors.toMap(OrderEntity::getId, Function.identity()));
+    }
+
+    @Transactional(readOnly = true)
     public OrderResponseDto getOrderById(Long id) {
-        OrderEntity orderEntity = orderRepository.findById(id).
-                orElseThrow(() -> {
+        return orderRepository.findById(id)
+                .map(mapper::toResponseDto)
+                .or(() -> archivedOrderRepository.findByIdWithCustomerAndProducts(id)
+                        .map(archived -> {
+                            log.debug("Заказ с ID: {} найден в архиве", id);
+                            return mapper.toArchivedResponseDto(archived);
+                        }))
+                .orElseThrow(() -> {
+                    log.warn("Заказ с ID: {} не найден", id);
+                    return new ResourceNotFoundException("Заказ с id: " + id + " не найден");
+                });
+    }
+
+    @Transactional(readOnly = true)
+    public String getOrderETag(Long id) {
+        return orderRepository.findVersionTag(id)
+                .or(() -> archivedOrderRepository.findVersionById(id).map(version -> "archived." + version))
+                .map(ETags::of)
+                .orElseThrow(() -> {
                     log.warn("Заказ с ID: {} не найден", id);
                     return new ResourceNotFoundException("Заказ с id: " + id + " не найден");
                 });
-        return mapper.toResponseDto(orderEntity);
     }
 
-    public Long removeOrder(Long id) {
-        OrderEntity orderEntity = orderRepository.findById(id).
+    private void checkIfMatch(Long id, String ifMatch) {
+        if (ifMatch != null && !ETags.matches(ifMatch, getOrderETag(id))) {
+            log.warn("Заказ с ID: {} был изменен, If-Match: {} не совпадает", id, ifMatch);
+            throw new PreconditionFailedException("Заказ с id: " + id + " был изменен");
+        }
+    }
+
+    @Transactional
+    public Long removeOrder(Long id, String ifMatch) {
+        Long version = orderRepository.findVersionById(id).
                 orElseThrow(() -> {
                     log.warn("Заказ с ID: {} не найден", id);
                     return new ResourceNotFoundException("Заказ с id: " + id + " не найден");
                 });
-        log.info("Удаление заказа с ID: {}", id);
-        orderRepository.delete(orderEntity);
-        log.info("Заказ с ID: {} успешно удален", id);
-        return orderEntity.getId();
+        checkIfMatch(id, ifMatch);
+        log.debug("Удаление заказа с ID: {}", id);
+        orderRepository.detachAllProducts(id);
+        if (orderRepository.deleteByIdAndVersion(id, version) == 0) {
+            log.warn("Заказ с ID: {} был изменен или удален во время удаления", id);
+            if (ifMatch != null) {
+                throw new PreconditionFailedException("Заказ с id: " + id + " был изменен");
+            }
+            throw new ObjectOptimisticLockingFailureException(OrderEntity.class, id);
+        }
+        orderTotalsService.removeOrder(id);
+        auditLog.record(AUDIT_ENTITY, id, AuditAction.DELETE, List.of());
+        log.debug("Заказ с ID: {} успешно удален", id);
+        return id;
     }
 
     @Transactional
@@ -128,32 +450,82 @@ public class OrderService {
                     log.warn("Товар с ID: {} не найден", productId);
                     return new ResourceNotFoundException("Товар с id: " + productId + " не найден");
                 });
-        log.info("Удаление товара из заказа");
+        log.debug("Удаление товара из заказа");
         orderEntity.removeProduct(productEntity);
         orderRepository.save(orderEntity);
-        log.info("Товар с ID={} успешно удален из заказа с ID={}", productId, orderId);
+        orderTotalsService.refreshOrders(List.of(orderId));
+        auditLog.record(AUDIT_ENTITY, orderId, AuditAction.UPDATE, PRODUCTS_FIELD);
+        log.debug("Товар с ID={} успешно удален из заказа с ID={}", productId, orderId);
         return mapper.toProductResponseDtoList(orderEntity.getProducts());
     }
 
-    public OrderResponseDto updateOrder(Long id, OrderRequestDto dto) {
+    @Transactional
+    public OrderResponseDto updateOrder(Long id, OrderRequestDto dto, String ifMatch) {
         OrderEntity entity = orderRepository.findById(id).
                 orElseThrow(() -> {
                     log.warn("Заказ с ID: {} не найден", id);
                     return new ResourceNotFoundException("Заказ с id: " + id + " не найден");
                 });
+        checkIfMatch(id, ifMatch);
         log.debug("Начало обновления данных заказа с ID: {}", id);
-        boolean updated = false;
+        List<String> changed = new ArrayList<>();
         if (dto.getOrderStatus() != null && !dto.getOrderStatus().equals(entity.getOrderStatus())) {
+            checkTransition(entity.getOrderStatus(), dto.getOrderStatus());
             entity.setOrderStatus(dto.getOrderStatus());
             log.debug("Обновлен статус: {}", entity.getOrderStatus());
-            updated =true;
+            changed.add("orderStatus");
         }
-        if (!updated) {
-            log.info("Ни одно поле не было изменено для заказа с ID: {}", id);
+        if (changed.isEmpty()) {
+            log.debug("Ни одно поле не было изменено для заказа с ID: {}", id);
             return mapper.toResponseDto(entity);
         }
         OrderEntity updatedOrder = orderRepository.save(entity);
-        log.info("Данные заказа с ID: {} успешно обновлены", id);
+        orderTotalsService.refreshOrders(List.of(id));
+        auditLog.record(AUDIT_ENTITY, id, AuditAction.UPDATE, changed);
+        log.debug("Данные заказа с ID: {} успешно обновлены", id);
         return mapper.toResponseDto(updatedOrder);
     }
+
+    @Transactional
+    public OrderStatusTransitionResultDto transitionOrders(OrderStatusTransitionRequestDto request) {
+        checkTransition(request.getFrom(), request.getTo());
+        log.debug("Пакетная смена статуса заказов {} -> {}: created date={}, product ID={}",
+                request.getFrom(), request.getTo(), request.getCreatedDate(), request.getProductId());
+        int updated = 0;
+        List<Long> ids;
+        do {
+            ids = orderRepository.findIdSlice(transitionFilter(request),
+                    PageRequest.of(0, TRANSITION_CHUNK_SIZE, Sort.by("id"))).getContent();
+            if (ids.isEmpty()) {
+                break;
+            }
+            int chunkUpdated = orderRepository.updateAll(OrderSpecification.idIn(transitionFilter(request), ids),
+                    Map.of("orderStatus", request.getTo()));
+            updated += chunkUpdated;
+            orderTotalsService.refreshOrders(ids);
+            if (chunkUpdated > 0) {
+                auditLog.recordAll(AUDIT_ENTITY, chunkUpdated == ids.size() ? ids : transitionedIds(request, ids),
+                        AuditAction.UPDATE, STATUS_FIELD);
+            }
+        } while (ids.size() == TRANSITION_CHUNK_SIZE);
+        log.info("Статус изменен у {} заказов: {} -> {}", updated, request.getFrom(), request.getTo());
+        return new OrderStatusTransitionResultDto(request.getFrom(), request.getTo(), updated);
+    }
+
+    private List<Long> transitionedIds(OrderStatusTransitionRequestDto request, List<Long> ids) {
+        return orderRepository.findIdSlice(OrderSpecification.idIn(
+                        OrderSpecification.query(null, request.getTo(), null), ids),
+                PageRequest.of(0, ids.size(), Sort.by("id"))).getContent();
+    }
+
+    private static FilterQuery<OrderEntity> transitionFilter(OrderStatusTransitionRequestDto request) {
+        return OrderSpecification.query(request.getCreatedDate(), request.getFrom(), request.getProductId());
+    }
+
+    private void checkTransition(OrderStatus from, OrderStatus to) {
+        if (!from.canTransitionTo(to)) {
+            log.warn("Недопустимый переход статуса заказа: {} -> {}", from, to);
+            throw new BadRequestException("Недопустимый переход статуса заказа: " + from + " -> " + to);
+        }
+    }
 }
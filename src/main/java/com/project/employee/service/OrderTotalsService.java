@@ -0,0 +1,193 @@
+package com.project.employee.service;
+
+import com.project.employee.dto.CustomerStatsDto;
+import com.project.employee.dto.DailyRevenueDto;
+import com.project.employee.dto.OrderStatsDto;
+import com.project.employee.exception.BadRequestException;
+import com.project.employee.exception.ResourceNotFoundException;
+import com.project.employee.repository.CustomerDailyRevenueRepository;
+import com.project.employee.repository.CustomerRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Timed(value = "app.service", percentiles = {0.5, 0.95, 0.99}, histogram = true)
+public class OrderTotalsService {
+
+    private static final String REFRESH_ORDER_TOTALS = """
+            merge into order_totals t
+            using (
+                select o.id as order_id,
+                       o.customer_id as customer_id,
+                       cast(coalesce(o.created_date, current_timestamp) as date) as order_date,
+                       o.status as status,
+                       coalesce(sum(l.quantity), 0) as product_count,
+                       coalesce(sum(l.quantity * l.unit_price), 0) as total
+                from orders o
+                left join order_lines l on l.order_id = o.id
+                where o.id in (:orderIds)
+                group by o.id, o.customer_id, o.created_date, o.status
+            ) s on t.order_id = s.order_id
+            when matched then update set
+                customer_id = s.customer_id,
+                order_date = s.order_date,
+                status = s.status,
+                product_count = s.product_count,
+                total = s.total
+            when not matched then insert (order_id, customer_id, order_date, status, product_count, total)
+                values (s.order_id, s.customer_id, s.order_date, s.status, s.product_count, s.total)
+            """;
+
+    private static final String REFRESH_CUSTOMER_DAY = """
+            merge into customer_daily_revenue r
+            using (
+                select customer_id, order_date, count(*) as order_count, sum(total) as revenue
+                from order_totals
+                where customer_id = :customerId and order_date = :orderDate and status <> 'CANCELED'
+                group by customer_id, order_date
+            ) s on r.customer_id = s.customer_id and r.revenue_date = s.order_date
+            when matched then update set
+                order_count = s.order_count,
+                revenue = s.revenue
+            when not matched then insert (customer_id, revenue_date, order_count, revenue)
+                values (s.customer_id, s.order_date, s.order_count, s.revenue)
+            """;
+
+    private static final String DELETE_EMPTY_CUSTOMER_DAY = """
+            delete from customer_daily_revenue
+            where customer_id = :customerId and revenue_date = :orderDate
+              and not exists (
+                  select 1 from order_totals t
+                  where t.customer_id = :customerId and t.order_date = :orderDate and t.status <> 'CANCELED')
+            """;
+
+    private static final String SELECT_CUSTOMER_DAYS = """
+            select distinct customer_id, order_date
+            from order_totals
+            where order_id in (:orderIds) and customer_id is not null
+            """;
+
+    private static final String SELECT_CUSTOMERS = """
+            select customer_id from orders where id in (:orderIds) and customer_id is not null
+            union
+            select customer_id from order_totals where order_id in (:orderIds) and customer_id is not null
+            """;
+
+    private static final String LOCK_CUSTOMERS = """
+            select id from customers where id in (:customerIds) order by id for %s
+            """;
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final CustomerRepository customerRepository;
+    private final CustomerDailyRevenueRepository dailyRevenueRepository;
+    private volatile String lockCustomersSql;
+
+    @Transactional
+    public void refreshOrders(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        List<List<Long>> chunks = chunks(orderIds);
+        lockCustomers(chunks);
+        for (List<Long> chunk : chunks) {
+            var params = new MapSqlParameterSource("orderIds", chunk);
+            jdbcTemplate.update(REFRESH_ORDER_TOTALS, params);
+            refreshCustomerDays(jdbcTemplate.queryForList(SELECT_CUSTOMER_DAYS, params));
+        }
+        log.debug("Пересчитаны итоги для {} заказов", orderIds.size());
+    }
+
+    @Transactional
+    public void removeOrder(Long orderId) {
+        entityManager.flush();
+        lockCustomers(List.of(List.of(orderId)));
+        var params = new MapSqlParameterSource("orderIds", List.of(orderId));
+        List<Map<String, Object>> days = jdbcTemplate.queryForList(SELECT_CUSTOMER_DAYS, params);
+        jdbcTemplate.update("delete from order_totals where order_id in (:orderIds)", params);
+        refreshCustomerDays(days);
+        log.debug("Итоги заказа с ID: {} удалены", orderId);
+    }
+
+    private void lockCustomers(List<List<Long>> orderIdChunks) {
+        SortedSet<Long> customerIds = new TreeSet<>();
+        for (List<Long> chunk : orderIdChunks) {
+            customerIds.addAll(jdbcTemplate.queryForList(SELECT_CUSTOMERS,
+                    new MapSqlParameterSource("orderIds", chunk), Long.class));
+        }
+        for (List<Long> chunk : chunks(customerIds)) {
+            jdbcTemplate.queryForList(lockCustomersSql(), new MapSqlParameterSource("customerIds", chunk), Long.class);
+        }
+    }
+
+    private String lockCustomersSql() {
+        if (lockCustomersSql == null) {
+            String database = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            lockCustomersSql = LOCK_CUSTOMERS.formatted(POSTGRESQL.equals(database) ? "no key update" : "update");
+        }
+        return lockCustomersSql;
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> list = List.copyOf(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += CHUNK_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + CHUNK_SIZE, list.size())));
+        }
+        return chunks;
+    }
+
+    private void refreshCustomerDays(List<Map<String, Object>> days) {
+        MapSqlParameterSource[] batch = days.stream()
+                .map(day -> new MapSqlParameterSource()
+                        .addValue("customerId", day.get("customer_id"))
+                        .addValue("orderDate", day.get("order_date")))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(REFRESH_CUSTOMER_DAY, batch);
+        jdbcTemplate.batchUpdate(DELETE_EMPTY_CUSTOMER_DAY, batch);
+    }
+
+    @Transactional(readOnly = true)
+    public CustomerStatsDto getCustomerStats(Long customerId) {
+        if (!customerRepository.existsById(customerId)) {
+            log.warn("Клиент с ID: {} не найден", customerId);
+            throw new ResourceNotFoundException("Клиент с id: " + customerId + " не найден");
+        }
+        return dailyRevenueRepository.findCustomerStats(customerId)
+                .orElseGet(() -> CustomerStatsDto.empty(customerId));
+    }
+
+    @Transactional(readOnly = true)
+    public OrderStatsDto getOrderStats(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("Дата начала периода не может быть позже даты окончания");
+        }
+        List<DailyRevenueDto> days = dailyRevenueRepository.findDailyRevenue(from, to);
+        long orderCount = days.stream().mapToLong(DailyRevenueDto::orderCount).sum();
+        BigDecimal revenue = days.stream().map(DailyRevenueDto::revenue).reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new OrderStatsDto(from, to, orderCount, revenue, days);
+    }
+}
@@ -4,22 +4,27 @@ import com.project.employee.dto.PageResponse;
 import com.project.employee.dto.ProductRequestDto;
 import com.project.employee.dto.ProductResponseDto;
 import com.project.employee.entity.ProductEntity;
+import com.project.employee.exception.PreconditionFailedException;
 import com.project.employee.exception.ResourceNotFoundException;
 import com.project.employee.mappers.ProductMapper;
 import com.project.employee.repository.ProductRepository;
+import com.project.employee.specification.FilterQuery;
 import com.project.employee.specification.ProductSpecification;
+import com.project.employee.utility.ETags;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "app.service", percentiles = {0.5, 0.95, 0.99}, histogram = true)
 public class ProductService {
     private final ProductRepository productRepository;
     private final ProductMapper mapper;
@@ -33,30 +38,21 @@ public class ProductService {
         return mapper.toResponseDto(savedEntity);
     }
 
+    @Transactional(readOnly = true)
     public PageResponse<ProductResponseDto> getAllProducts(
             String name,
             String description,
             BigDecimal price,
+            boolean withTotal,
             Pageable pageable
     ) {
-        Specification<ProductEntity> specs = ProductSpecification.filter(name, description, price);
+        FilterQuery<ProductEntity> filter = ProductSpecification.query(name, description, price);
         log.debug("Поиск сотрудников по фильтрам: name={}, description={}, price={}, page={}",
                 name, description, price, pageable.getPageNumber());
-        Page<ProductEntity> page = productRepository.findAll(specs, pageable);
-        Page<ProductResponseDto> dtoPage = page.map(mapper::toResponseDto);
-        return toPageResponse(dtoPage);
-    }
-
-    private <T> PageResponse<T> toPageResponse(Page<T> page) {
-        var response = new PageResponse<T>();
-        response.setContent(page.getContent());
-        response.setPageNumber(page.getNumber());
-        response.setPageSize(page.getSize());
-        response.setTotalElements(page.getTotalElements());
-        response.setTotalPages(page.getTotalPages());
-        response.setFirst(page.isFirst());
-        response.setLast(page.isLast());
-        return response;
+        if (withTotal) {
+            return PageResponse.fromPage(productRepository.findAll(filter, pageable).map(mapper::toResponseDto));
+        }
+        return PageResponse.fromSlice(productRepository.findSlice(filter, pageable).map(mapper::toResponseDto));
     }
 
     public ProductResponseDto getProductById(Long id) {
@@ -68,29 +64,58 @@ public class ProductService {
         return mapper.toResponseDto(entity);
     }
 
-    public Long removeProductById(Long id) {
-        ProductEntity entity = productRepository.findById(id).
+    public String getProductETag(Long id) {
+        return productRepository.findVersionById(id)
+                .map(ETags::of)
+                .orElseThrow(() -> {
+                    log.warn("Товар с ID: {} не найден", id);
+                    return new ResourceNotFoundException("Товар с id: " + id + " не найден");
+                });
+    }
+
+    private void checkIfMatch(Long id, Long version, String ifMatch) {
+        if (!ETags.matches(ifMatch, ETags.of(version))) {
+            log.warn("Товар с ID: {} был изменен, If-Match: {} не совпадает", id, ifMatch);
+            throw new PreconditionFailedException("Товар с id: " + id + " был изменен");
+        }
+    }
+
+    @Transactional
+    public Long removeProductById(Long id, String ifMatch) {
+        ProductEntity productEntity = productRepository.findById(id).
                 orElseThrow(() -> {
                     log.warn("Товар с ID: {} не найден", id);
                     return new ResourceNotFoundException("Товар с id: " + id + " не найден");
                 });
-        if (!entity.getOrders().isEmpty()) {
-            log.warn("Нельзя удалить товар с ID={}, потому что он связан с заказом");
+        checkIfMatch(id, productEntity.getVersion(), ifMatch);
+        if (productRepository.isReferencedByOrders(id)) {
+            log.warn("Нельзя удалить товар с ID={}, потому что он связан с заказом", id);
             throw new IllegalStateException("Нельзя удалить товар с ID: " + id +
                                             " ,потому что он связан с заказом");
         }
         log.info("Удаление товара с ID: {}", id);
-        productRepository.delete(entity);
+        try {
+            productRepository.delete(productEntity);
+            productRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.warn("Товар с ID: {} был изменен или удален во время удаления", id);
+            if (ifMatch != null) {
+                throw new PreconditionFailedException("Товар с id: " + id + " был изменен");
+            }
+            throw e;
+        }
         log.info("Товар с ID: {} успешно удален", id);
-        return entity.getId();
+        return id;
     }
 
-    public ProductResponseDto updateProduct(Long id, ProductRequestDto dto) {
+    @Transactional
+    public ProductResponseDto updateProduct(Long id, ProductRequestDto dto, String ifMatch) {
         ProductEntity productEntity = productRepository.findById(id).
                 orElseThrow(() -> {
                     log.warn("Товар с ID: {} не найден", id);
                     return new ResourceNotFoundException("Товар с id: " + id + " не найден");
                 });
+        checkIfMatch(id, productEntity.getVersion(), ifMatch);
         log.debug("Начало обновления данных товара с ID: {}", id);
         boolean updated = false;
         if (dto.getName() != null && !dto.getName().equals(productEntity.getName())) {
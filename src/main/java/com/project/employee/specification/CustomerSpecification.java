@@ -1,33 +1,29 @@
 package com.project.employee.specification;
 
 import com.project.employee.entity.CustomerEntity;
-import jakarta.persistence.criteria.Predicate;
-import org.springframework.data.jpa.domain.Specification;
+import com.project.employee.utility.LikePatterns;
 
-import java.util.ArrayList;
+import java.util.Collection;
 
 public class CustomerSpecification {
-    public static Specification<CustomerEntity> filter(
+    public static FilterQuery<CustomerEntity> query(
             String firstName,
             String lastName,
             String emailLike,
+            boolean emailIgnoreCase,
             String phoneNumber
     ) {
-        return (root, query, cb) -> {
-            var predicates = new ArrayList<Predicate>();
-            if (firstName != null) {
-                predicates.add(cb.equal(root.get("firstName"), firstName));
-            }
-            if (lastName != null) {
-                predicates.add(cb.equal(root.get("lastName"), lastName));
-            }
-            if (emailLike != null) {
-                predicates.add(cb.like(root.get("email"), "%" + emailLike + "%"));
-            }
-            if (phoneNumber != null) {
-                predicates.add(cb.equal(root.get("phoneNumber"), phoneNumber));
-            }
-            return cb.and(predicates.toArray(new Predicate[0]));
-        };
+        return FilterQuery.of(CustomerEntity.class)
+                .where("e.firstName = :firstName", "firstName", firstName)
+                .where("e.lastName = :lastName", "lastName", lastName)
+                .where(emailIgnoreCase
+                                ? "lower(e.email) like :emailLike escape '!'"
+                                : "e.email like :emailLike escape '!'", "emailLike",
+                        emailLike == null ? null : LikePatterns.contains(emailLike, emailIgnoreCase))
+                .where("e.phoneNumber = :phoneNumber", "phoneNumber", phoneNumber);
+    }
+
+    public static FilterQuery<CustomerEntity> idIn(FilterQuery<CustomerEntity> query, Collection<Long> ids) {
+        return ids.isEmpty() ? query.where("1 = 0") : query.where("e.id in :ids", "ids", ids);
     }
 }
@@ -2,32 +2,28 @@ package com.project.employee.specification;
 
 import com.project.employee.entity.EmployeeEntity;
 import com.project.employee.enums.EmployeeRole;
-import org.springframework.data.jpa.domain.Specification;
-import jakarta.persistence.criteria.Predicate;
-import java.util.ArrayList;
+import com.project.employee.utility.LikePatterns;
+import java.util.Collection;
 
 public class EmployeeSpecification {
-    public static Specification<EmployeeEntity> filter(
+    public static FilterQuery<EmployeeEntity> query(
             String firstName,
             String lastName,
             String emailLike,
+            boolean emailIgnoreCase,
             EmployeeRole role
     ) {
-        return (root, query, cb) -> {
-            var predicates = new ArrayList<Predicate>();
-            if (firstName != null) {
-                predicates.add(cb.equal(root.get("firstName"), firstName));
-            }
-            if (lastName != null) {
-                predicates.add(cb.equal(root.get("lastName"), lastName));
-            }
-            if (emailLike != null) {
-                predicates.add(cb.like(root.get("email"), "%" + emailLike + "%"));
-            }
-            if (role != null) {
-                predicates.add(cb.equal(root.get("role"), role));
-            }
-            return cb.and(predicates.toArray(new Predicate[0]));
-        };
+        return FilterQuery.of(EmployeeEntity.class)
+                .where("e.firstName = :firstName", "firstName", firstName)
+                .where("e.lastName = :lastName", "lastName", lastName)
+                .where(emailIgnoreCase
+                                ? "lower(e.email) like :emailLike escape '!'"
+                                : "e.email like :emailLike escape '!'", "emailLike",
+                        emailLike == null ? null : LikePatterns.contains(emailLike, emailIgnoreCase))
+                .where("e.role = :role", "role", role);
+    }
+
+    public static FilterQuery<EmployeeEntity> idIn(FilterQuery<EmployeeEntity> query, Collection<Long> ids) {
+        return ids.isEmpty() ? query.where("1 = 0") : query.where("e.id in :ids", "ids", ids);
     }
 }
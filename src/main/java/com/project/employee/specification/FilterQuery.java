@@ -0,0 +1,62 @@
+package com.project.employee.specification;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class FilterQuery<T> {
+    public static final String ALIAS = "e";
+
+    private final Class<T> domainClass;
+    private final List<String> predicates = new ArrayList<>();
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+    private boolean cacheable;
+
+    private FilterQuery(Class<T> domainClass) {
+        this.domainClass = domainClass;
+    }
+
+    public static <T> FilterQuery<T> of(Class<T> domainClass) {
+        return new FilterQuery<>(domainClass);
+    }
+
+    public FilterQuery<T> where(String predicate, String parameter, Object value) {
+        if (value != null) {
+            predicates.add(predicate);
+            parameters.put(parameter, value);
+        }
+        return this;
+    }
+
+    public FilterQuery<T> where(String predicate) {
+        predicates.add(predicate);
+        return this;
+    }
+
+    public FilterQuery<T> cacheable() {
+        this.cacheable = true;
+        return this;
+    }
+
+    public Class<T> getDomainClass() {
+        return domainClass;
+    }
+
+    public Map<String, Object> getParameters() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
+    public String shapeKey() {
+        return String.join(" and ", predicates);
+    }
+
+    public String whereClause() {
+        return predicates.isEmpty() ? "" : " where " + shapeKey();
+    }
+}
@@ -1,7 +1,7 @@
 package com.project.employee.specification;
 
 import com.project.employee.entity.OrderEntity;
-import com.project.employee.entity.ProductEntity;
+import com.project.employee.entity.OrderLineEntity;
 import com.project.employee.enums.OrderStatus;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
@@ -10,6 +10,7 @@ import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 
 public class OrderSpecification {
     public static Specification<OrderEntity> filter(
@@ -25,10 +26,35 @@ public class OrderSpecification {
                 predicates.add(cb.equal(root.get("orderStatus"), orderStatus));
             }
             if (productId != null) {
-                Join<OrderEntity, ProductEntity> productsJoin = root.join("products", JoinType.INNER);
-                predicates.add(cb.equal(productsJoin.get("id"), productId));
+                Join<OrderEntity, OrderLineEntity> linesJoin = root.join("lines", JoinType.INNER);
+                predicates.add(cb.equal(linesJoin.get("id").get("productId"), productId));
             }
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    public static FilterQuery<OrderEntity> query(
+            LocalDateTime createdDate,
+            OrderStatus orderStatus,
+            Long productId) {
+        return FilterQuery.of(OrderEntity.class)
+                .where("e.createdDate >= :createdDate", "createdDate", createdDate)
+                .where("e.orderStatus = :orderStatus", "orderStatus", orderStatus)
+                .where("exists (select 1 from OrderLineEntity l where l.id.orderId = e.id and l.id.productId = :productId)",
+                        "productId", productId);
+    }
+
+    public static FilterQuery<OrderEntity> idIn(FilterQuery<OrderEntity> query, Collection<Long> ids) {
+        return ids.isEmpty() ? query.where("1 = 0") : query.where("e.id in :ids", "ids", ids);
+    }
+
+    public static Specification<OrderEntity> after(LocalDateTime createdDate, Long id) {
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("createdDate"), createdDate),
+                cb.or(
+                        cb.greaterThan(root.get("createdDate"), createdDate),
+                        cb.greaterThan(root.get("id"), id)
+                )
+        );
+    }
 }
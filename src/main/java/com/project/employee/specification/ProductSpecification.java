@@ -23,4 +23,12 @@ public class ProductSpecification {
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    public static FilterQuery<ProductEntity> query(String name, String description, BigDecimal price) {
+        return FilterQuery.of(ProductEntity.class)
+                .where("e.name = :name", "name", name)
+                .where("e.description = :description", "description", description)
+                .where("e.price = :price", "price", price)
+                .cacheable();
+    }
 }
@@ -0,0 +1,30 @@
+package com.project.employee.utility;
+
+public final class ETags {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    public static String of(Object version) {
+        return "\"" + version + "\"";
+    }
+
+    public static boolean matches(String ifMatch, String eTag) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return true;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith(WEAK_PREFIX)) {
+                continue;
+            }
+            if (ANY.equals(value) || value.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
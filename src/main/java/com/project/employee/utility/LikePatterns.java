@@ -0,0 +1,23 @@
+package com.project.employee.utility;
+
+import java.util.Locale;
+
+public final class LikePatterns {
+
+    public static final char ESCAPE = '!';
+
+    private LikePatterns() {
+    }
+
+    public static String contains(String value, boolean ignoreCase) {
+        String needle = ignoreCase ? value.toLowerCase(Locale.ROOT) : value;
+        StringBuilder pattern = new StringBuilder(needle.length() + 2).append('%');
+        for (char c : needle.toCharArray()) {
+            if (c == ESCAPE || c == '%' || c == '_') {
+                pattern.append(ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
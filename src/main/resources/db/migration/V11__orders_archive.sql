@@ -0,0 +1,25 @@
+CREATE TABLE orders_archive (
+    id BIGINT PRIMARY KEY,
+    customer_id BIGINT NOT NULL
+                    REFERENCES customers(id) ON DELETE RESTRICT,
+    status VARCHAR(50) NOT NULL
+                    CHECK ( status IN ('NEW','PROCESSING','COMPLETED','CANCELED')),
+    created_date TIMESTAMP NOT NULL,
+    version BIGINT NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_orders_archive_created_date_id ON orders_archive (created_date, id);
+CREATE INDEX idx_orders_archive_customer_id ON orders_archive (customer_id);
+
+CREATE TABLE order_lines_archive (
+    order_id BIGINT NOT NULL
+                           REFERENCES orders_archive(id) ON DELETE CASCADE,
+    product_id BIGINT NOT NULL
+                           REFERENCES products(id) ON DELETE RESTRICT,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    unit_price NUMERIC(19, 2) NOT NULL,
+    PRIMARY KEY (order_id, product_id)
+);
+
+CREATE INDEX idx_order_lines_archive_product_id ON order_lines_archive (product_id);
@@ -0,0 +1,17 @@
+ALTER TABLE order_totals ADD COLUMN status VARCHAR(50);
+
+UPDATE order_totals t
+SET status = COALESCE(
+        (SELECT o.status FROM orders o WHERE o.id = t.order_id),
+        (SELECT a.status FROM orders_archive a WHERE a.id = t.order_id),
+        'COMPLETED');
+
+ALTER TABLE order_totals ALTER COLUMN status SET NOT NULL;
+
+DELETE FROM customer_daily_revenue;
+
+INSERT INTO customer_daily_revenue (customer_id, revenue_date, order_count, revenue)
+SELECT customer_id, order_date, COUNT(*), SUM(total)
+FROM order_totals
+WHERE customer_id IS NOT NULL AND status <> 'CANCELED'
+GROUP BY customer_id, order_date;
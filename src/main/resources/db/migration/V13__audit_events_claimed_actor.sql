@@ -0,0 +1 @@
+ALTER TABLE audit_events ADD COLUMN claimed_actor VARCHAR(100);
@@ -0,0 +1 @@
+CREATE INDEX idx_orders_created_date_id ON orders (created_date, id);
@@ -0,0 +1,4 @@
+CREATE SEQUENCE IF NOT EXISTS orders_id_seq;
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+
+ALTER TABLE orders ALTER COLUMN id DROP DEFAULT;
@@ -0,0 +1,36 @@
+CREATE TABLE order_totals (
+    order_id BIGINT PRIMARY KEY,
+    customer_id BIGINT,
+    order_date DATE NOT NULL,
+    product_count INT NOT NULL,
+    total NUMERIC(19, 2) NOT NULL
+);
+
+CREATE INDEX idx_order_totals_customer_date ON order_totals (customer_id, order_date);
+
+CREATE TABLE customer_daily_revenue (
+    customer_id BIGINT NOT NULL,
+    revenue_date DATE NOT NULL,
+    order_count INT NOT NULL,
+    revenue NUMERIC(19, 2) NOT NULL,
+    PRIMARY KEY (customer_id, revenue_date)
+);
+
+CREATE INDEX idx_customer_daily_revenue_date ON customer_daily_revenue (revenue_date);
+
+INSERT INTO order_totals (order_id, customer_id, order_date, product_count, total)
+SELECT o.id,
+       o.customer_id,
+       CAST(COALESCE(o.created_date, CURRENT_TIMESTAMP) AS DATE),
+       COUNT(p.id),
+       COALESCE(SUM(p.price), 0)
+FROM orders o
+LEFT JOIN product_order po ON po.order_id = o.id
+LEFT JOIN products p ON p.id = po.product_id
+GROUP BY o.id, o.customer_id, o.created_date;
+
+INSERT INTO customer_daily_revenue (customer_id, revenue_date, order_count, revenue)
+SELECT customer_id, order_date, COUNT(*), SUM(total)
+FROM order_totals
+WHERE customer_id IS NOT NULL
+GROUP BY customer_id, order_date;
@@ -0,0 +1,12 @@
+CREATE TABLE audit_events (
+    id BIGSERIAL PRIMARY KEY,
+    entity_type VARCHAR(55) NOT NULL,
+    entity_id BIGINT,
+    action VARCHAR(20) NOT NULL,
+    changed_fields TEXT,
+    actor VARCHAR(100) NOT NULL,
+    occurred_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_audit_events_entity ON audit_events (entity_type, entity_id);
+CREATE INDEX idx_audit_events_occurred_at ON audit_events (occurred_at);
@@ -0,0 +1,18 @@
+CREATE TABLE order_lines (
+    order_id BIGINT NOT NULL
+                           REFERENCES orders(id) ON DELETE RESTRICT,
+    product_id BIGINT NOT NULL
+                           REFERENCES products(id) ON DELETE RESTRICT,
+    quantity INTEGER NOT NULL DEFAULT 1 CHECK (quantity > 0),
+    unit_price NUMERIC(19, 2) NOT NULL,
+    PRIMARY KEY (order_id, product_id)
+);
+
+CREATE INDEX idx_order_lines_product_id ON order_lines (product_id);
+
+INSERT INTO order_lines (order_id, product_id, quantity, unit_price)
+SELECT po.order_id, po.product_id, 1, COALESCE(p.price, 0)
+FROM product_order po
+JOIN products p ON p.id = po.product_id;
+
+DROP TABLE product_order;
@@ -0,0 +1,198 @@
+package com.project.employee.audit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class AuditLogTest {
+
+    private final List<AuditEvent> persisted = new ArrayList<>();
+    private JdbcTemplate jdbcTemplate;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        doAnswer(invocation -> {
+            synchronized (persisted) {
+                persisted.addAll(invocation.<Collection<AuditEvent>>getArgument(1));
+            }
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private AuditLog auditLog(int bufferSize, BackpressurePolicy policy, double sampleRate) {
+        return new AuditLog(jdbcTemplate, meterRegistry, true, bufferSize, 100, Duration.ofMillis(1),
+                policy, sampleRate);
+    }
+
+    private void record(AuditLog auditLog, long id) {
+        auditLog.record("Order", id, AuditAction.UPDATE, List.of("orderStatus"));
+    }
+
+    private double events(String result) {
+        return meterRegistry.counter("app.audit.events", "result", result).count();
+    }
+
+    @Test
+    @DisplayName("record: вне транзакции событие сразу попадает в буфер и записывается")
+    void record_withoutTransaction_isWritten() {
+        AuditLog auditLog = auditLog(16, BackpressurePolicy.DROP, 1);
+        auditLog.start();
+        record(auditLog, 1L);
+        auditLog.stop();
+
+        assertThat(persisted).extracting(AuditEvent::entityId).containsExactly(1L);
+        assertThat(events("written")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("record: в транзакции событие ставится в очередь только после коммита, при откате теряется")
+    void record_insideTransaction_isEnqueuedAfterCommitOnly() {
+        AuditLog auditLog = auditLog(16, BackpressurePolicy.DROP, 1);
+        auditLog.start();
+
+        TransactionSynchronizationManager.initSynchronization();
+        record(auditLog, 1L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.initSynchronization();
+        record(auditLog, 2L);
+        List<TransactionSynchronization> committed = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        committed.forEach(TransactionSynchronization::afterCommit);
+
+        auditLog.stop();
+
+        assertThat(persisted).extracting(AuditEvent::entityId).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("recordAll: по событию на каждый id с одним автором, в очередь после коммита одной синхронизацией")
+    void recordAll_insideTransaction_enqueuesOneEventPerIdAfterCommit() {
+        AuditLog auditLog = auditLog(16, BackpressurePolicy.DROP, 1);
+        auditLog.start();
+
+        TransactionSynchronizationManager.initSynchronization();
+        auditLog.recordAll("Order", List.of(1L, 2L, 3L), AuditAction.UPDATE, List.of("orderStatus"));
+        auditLog.recordAll("Order", List.of(), AuditAction.UPDATE, List.of("orderStatus"));
+        List<TransactionSynchronization> committed = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        assertThat(committed).hasSize(1);
+        committed.forEach(TransactionSynchronization::afterCommit);
+
+        auditLog.stop();
+
+        assertThat(persisted).extracting(AuditEvent::entityId).containsExactly(1L, 2L, 3L);
+        assertThat(persisted).extracting(AuditEvent::actor).containsOnly("system");
+        assertThat(persisted).extracting(AuditEvent::changedFields).containsOnly(List.of("orderStatus"));
+    }
+
+    @Test
+    @DisplayName("DROP: при переполнении буфера лишние события отбрасываются и считаются")
+    void drop_whenBufferFull_countsDropped() {
+        AuditLog auditLog = auditLog(4, BackpressurePolicy.DROP, 1);
+        for (long id = 1; id <= 10; id++) {
+            record(auditLog, id);
+        }
+        auditLog.start();
+        auditLog.stop();
+
+        assertThat(events("dropped")).isEqualTo(6);
+        assertThat(persisted).extracting(AuditEvent::entityId).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    @DisplayName("SAMPLE: при заполнении буфера на 3/4 события отбрасываются с вероятностью 1 - sample-rate")
+    void sample_underPressure_dropsBeyondThreshold() {
+        AuditLog auditLog = auditLog(8, BackpressurePolicy.SAMPLE, 0);
+        for (long id = 1; id <= 10; id++) {
+            record(auditLog, id);
+        }
+        auditLog.start();
+        auditLog.stop();
+
+        assertThat(persisted).hasSize(6);
+        assertThat(events("dropped")).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("BLOCK: производитель ждет освобождения буфера и ничего не теряет, без писателя - отбрасывает")
+    void block_waitsForWriterAndLosesNothing() {
+        AuditLog stopped = auditLog(2, BackpressurePolicy.BLOCK, 1);
+        for (long id = 1; id <= 3; id++) {
+            record(stopped, id);
+        }
+        assertThat(events("dropped")).isEqualTo(1);
+
+        persisted.clear();
+        AuditLog auditLog = auditLog(2, BackpressurePolicy.BLOCK, 1);
+        auditLog.start();
+        for (long id = 1; id <= 1_000; id++) {
+            record(auditLog, id);
+        }
+        auditLog.stop();
+
+        assertThat(persisted).hasSize(1_000);
+        assertThat(events("dropped")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("record: автор берется из аутентифицированного пользователя, X-Actor хранится отдельно")
+    void record_takesActorFromPrincipalAndKeepsHeaderSeparately() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setUserPrincipal(() -> "manager");
+        request.addHeader(AuditLog.ACTOR_HEADER, "admin");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        AuditLog auditLog = auditLog(16, BackpressurePolicy.DROP, 1);
+        auditLog.start();
+        record(auditLog, 1L);
+
+        MockHttpServletRequest anonymous = new MockHttpServletRequest();
+        anonymous.addHeader(AuditLog.ACTOR_HEADER, "x".repeat(500));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(anonymous));
+        record(auditLog, 2L);
+
+        RequestContextHolder.resetRequestAttributes();
+        record(auditLog, 3L);
+        auditLog.stop();
+
+        assertThat(persisted).extracting(AuditEvent::actor).containsExactly("manager", "anonymous", "system");
+        assertThat(persisted).extracting(AuditEvent::claimedActor).containsExactly("admin", "x".repeat(100), null);
+    }
+}
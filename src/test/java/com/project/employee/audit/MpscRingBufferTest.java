@@ -0,0 +1,106 @@
+package com.project.employee.audit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MpscRingBufferTest {
+
+    private static final int PRODUCERS = 4;
+    private static final int PER_PRODUCER = 10_000;
+
+    private record Item(int producer, int sequence) {
+    }
+
+    @Test
+    @DisplayName("MpscRingBuffer: емкость округляется до степени двойки, слишком маленькая емкость запрещена")
+    void capacity_isRoundedUpToPowerOfTwo() {
+        assertThat(new MpscRingBuffer<>(2).capacity()).isEqualTo(2);
+        assertThat(new MpscRingBuffer<>(5).capacity()).isEqualTo(8);
+        assertThat(new MpscRingBuffer<>(8).capacity()).isEqualTo(8);
+        assertThatThrownBy(() -> new MpscRingBuffer<>(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("offer: при заполненном буфере возвращает false, drainTo освобождает место в порядке FIFO")
+    void offer_whenFull_rejectsUntilDrained() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 3)).isEqualTo(3);
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(buffer.drainTo(drained, 10)).isEqualTo(2);
+
+        assertThat(drained).containsExactly(0, 1, 2, 3, 4);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("offer/drainTo: конкурентные производители не теряют и не дублируют элементы, порядок каждого сохраняется")
+    void concurrentProducers_deliverEveryElementOnceInProducerOrder() throws Exception {
+        MpscRingBuffer<Item> buffer = new MpscRingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            producers.add(executor.submit(() -> {
+                start.await();
+                int rejected = 0;
+                for (int i = 0; i < PER_PRODUCER; i++) {
+                    while (!buffer.offer(new Item(producer, i))) {
+                        rejected++;
+                        Thread.yield();
+                    }
+                }
+                return rejected;
+            }));
+        }
+
+        int[] lastSequence = new int[PRODUCERS];
+        Arrays.fill(lastSequence, -1);
+        Set<Item> seen = new HashSet<>();
+        List<Item> batch = new ArrayList<>();
+        start.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (seen.size() < PRODUCERS * PER_PRODUCER && System.nanoTime() < deadline) {
+            batch.clear();
+            if (buffer.drainTo(batch, 16) == 0) {
+                Thread.yield();
+                continue;
+            }
+            for (Item item : batch) {
+                assertThat(seen.add(item)).as("дубликат %s", item).isTrue();
+                assertThat(item.sequence()).as("порядок производителя %d", item.producer())
+                        .isEqualTo(lastSequence[item.producer()] + 1);
+                lastSequence[item.producer()] = item.sequence();
+            }
+        }
+        for (Future<Integer> producer : producers) {
+            producer.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdownNow();
+
+        assertThat(seen).hasSize(PRODUCERS * PER_PRODUCER);
+        assertThat(lastSequence).containsOnly(PER_PRODUCER - 1);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+}
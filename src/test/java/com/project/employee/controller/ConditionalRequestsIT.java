@@ -0,0 +1,159 @@
+package com.project.employee.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalRequestsIT {
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:mem:conditional;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+        registry.add("spring.flyway.enabled", () -> "false");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("app.audit.enabled", () -> "false");
+        registry.add("app.partitions.orders.enabled", () -> "false");
+        registry.add("app.orders.archive.enabled", () -> "false");
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private static String unique() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static String employee(String lastName) {
+        return """
+                {"firstName": "Ivan", "lastName": "%s", "email": "%s@corp.ru",
+                 "password": "Qwerty123!", "role": "MANAGER"}
+                """.formatted(lastName, unique());
+    }
+
+    private static String customer(String lastName) {
+        return """
+                {"firstName": "Anna", "lastName": "%s", "email": "%s@mail.ru", "phoneNumber": "+7928%07d"}
+                """.formatted(lastName, unique(), SEQUENCE.incrementAndGet());
+    }
+
+    private static String product(String name) {
+        return """
+                {"name": "%s", "description": "yummy and chewy", "price": "100.00"}
+                """.formatted(name + " " + unique());
+    }
+
+    private static final Map<String, Function<String, String>> RESOURCES = Map.of(
+            "/employees", ConditionalRequestsIT::employee,
+            "/customers", ConditionalRequestsIT::customer,
+            "/products", ConditionalRequestsIT::product);
+
+    private String create(String path, String body) throws Exception {
+        String json = mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+        return path + "/" + JsonPath.read(json, "$.id");
+    }
+
+    private String eTag(String location) throws Exception {
+        String eTag = mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("\"").endsWith("\"");
+        return eTag;
+    }
+
+    @Test
+    @DisplayName("GET: If-None-Match с текущим сильным или слабым ETag возвращает 304, после изменения - 200")
+    void get_whenIfNoneMatchCurrent_returnsNotModified() throws Exception {
+        for (var resource : RESOURCES.entrySet()) {
+            String location = create(resource.getKey(), resource.getValue().apply("Before"));
+            String eTag = eTag(location);
+
+            mockMvc.perform(get(location).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified());
+            mockMvc.perform(get(location).header(HttpHeaders.IF_NONE_MATCH, "W/" + eTag))
+                    .andExpect(status().isNotModified());
+
+            mockMvc.perform(patch(location).contentType(MediaType.APPLICATION_JSON)
+                            .content(resource.getValue().apply("After")))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(get(location).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+        }
+    }
+
+    @Test
+    @DisplayName("PATCH: устаревший или слабый If-Match - 412, текущий сильный - 200")
+    void patch_usesStrongIfMatch() throws Exception {
+        for (var resource : RESOURCES.entrySet()) {
+            String location = create(resource.getKey(), resource.getValue().apply("Before"));
+            String eTag = eTag(location);
+
+            mockMvc.perform(patch(location).header(HttpHeaders.IF_MATCH, "W/" + eTag)
+                            .contentType(MediaType.APPLICATION_JSON).content(resource.getValue().apply("Weak")))
+                    .andExpect(status().isPreconditionFailed());
+            mockMvc.perform(patch(location).header(HttpHeaders.IF_MATCH, "\"999\"")
+                            .contentType(MediaType.APPLICATION_JSON).content(resource.getValue().apply("Stale")))
+                    .andExpect(status().isPreconditionFailed());
+            assertThat(eTag(location)).isEqualTo(eTag);
+
+            mockMvc.perform(patch(location).header(HttpHeaders.IF_MATCH, eTag)
+                            .contentType(MediaType.APPLICATION_JSON).content(resource.getValue().apply("After")))
+                    .andExpect(status().isOk());
+            assertThat(eTag(location)).isNotEqualTo(eTag);
+        }
+    }
+
+    @Test
+    @DisplayName("DELETE: устаревший или слабый If-Match - 412 и запись остается, текущий - удаляет")
+    void delete_usesStrongIfMatch() throws Exception {
+        for (var resource : RESOURCES.entrySet()) {
+            String location = create(resource.getKey(), resource.getValue().apply("Doomed"));
+            String eTag = eTag(location);
+
+            mockMvc.perform(delete(location).header(HttpHeaders.IF_MATCH, "W/" + eTag))
+                    .andExpect(status().isPreconditionFailed());
+            mockMvc.perform(delete(location).header(HttpHeaders.IF_MATCH, "\"999\""))
+                    .andExpect(status().isPreconditionFailed());
+            mockMvc.perform(get(location)).andExpect(status().isOk());
+
+            mockMvc.perform(delete(location).header(HttpHeaders.IF_MATCH, eTag))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get(location)).andExpect(status().isNotFound());
+        }
+    }
+}
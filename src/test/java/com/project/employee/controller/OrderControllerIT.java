@@ -1,15 +1,25 @@
 package com.project.employee.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.jayway.jsonpath.JsonPath;
 import com.project.employee.dto.OrderRequestDto;
 import com.project.employee.entity.CustomerEntity;
 import com.project.employee.entity.OrderEntity;
 import com.project.employee.entity.ProductEntity;
 import com.project.employee.enums.OrderStatus;
+import com.project.employee.idempotency.IdempotencyKeyFilter;
+import com.project.employee.repository.CustomerDailyRevenueRepository;
 import com.project.employee.repository.CustomerRepository;
 import com.project.employee.repository.OrderRepository;
+import com.project.employee.repository.OrderTotalRepository;
 import com.project.employee.repository.ProductRepository;
+import com.project.employee.service.OrderArchiveService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,7 +27,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
@@ -26,15 +38,17 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
-@Testcontainers
+@Testcontainers(disabledWithoutDocker = true)
 @AutoConfigureMockMvc
 class OrderControllerIT {
 
@@ -51,6 +65,7 @@ class OrderControllerIT {
         registry.add("spring.datasource.password", pg::getPassword);
         registry.add("spring.flyway.enabled", () -> "true");
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
     }
 
     @Autowired
@@ -63,9 +78,24 @@ class OrderControllerIT {
     CustomerRepository customerRepository;
     @Autowired
     ProductRepository productRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    OrderTotalRepository orderTotalRepository;
+    @Autowired
+    CustomerDailyRevenueRepository customerDailyRevenueRepository;
+    @Autowired
+    OrderArchiveService orderArchiveService;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
 
     @BeforeEach
     void clean() {
+        jdbcTemplate.update("delete from orders_archive");
+        orderTotalRepository.deleteAll();
+        customerDailyRevenueRepository.deleteAll();
         orderRepository.deleteAll();
         customerRepository.deleteAll();
         productRepository.deleteAll();
@@ -112,6 +142,35 @@ class OrderControllerIT {
         assertThat(saved.getOrderStatus()).isEqualTo(OrderStatus.NEW);
     }
 
+    @Test
+    @DisplayName("POST /orders: повтор с тем же Idempotency-Key возвращает сохраненный ответ без второго заказа")
+    void addOrder_withSameIdempotencyKey_replaysResponse() throws Exception {
+        var customer = customer("Evgeny", "Lim", "test@gmail.com", "+79281112233");
+
+        var body = new OrderRequestDto();
+        body.setCustomerId(customer.getId());
+        body.setOrderStatus(OrderStatus.NEW);
+        var content = objectMapper.writeValueAsString(body);
+
+        var first = mockMvc.perform(post("/orders")
+                        .header(IdempotencyKeyFilter.IDEMPOTENCY_KEY_HEADER, "order-retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(content))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyKeyFilter.REPLAYED_HEADER))
+                .andReturn();
+
+        mockMvc.perform(post("/orders")
+                        .header(IdempotencyKeyFilter.IDEMPOTENCY_KEY_HEADER, "order-retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(content))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyKeyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(content().json(first.getResponse().getContentAsString()));
+
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
     @Test
     @DisplayName("POST /orders: 400 при отсутствии обязательного поля orderStatus")
     void createOrder_whenMissOrderStatus_validation400() throws Exception {
@@ -128,7 +187,60 @@ class OrderControllerIT {
     }
 
     @Test
-    @DisplayName("POST /orders/{id}/products/{pid}: 202 и товар добавлен в заказ")
+    @DisplayName("POST /orders/batch: 201 и все заказы созданы")
+    void addOrders_whenAllValid_returns201() throws Exception {
+        var customer = customer("Evgeny", "Lim", "test@gmail.com", "+79281112233");
+        List<OrderRequestDto> body = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            var dto = new OrderRequestDto();
+            dto.setCustomerId(customer.getId());
+            dto.setOrderStatus(OrderStatus.NEW);
+            body.add(dto);
+        }
+
+        mockMvc.perform(post("/orders/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].created").value(true))
+                .andExpect(jsonPath("$[0].order.id").isNumber())
+                .andExpect(jsonPath("$[2].order.customerInfo.email").value("test@gmail.com"));
+
+        assertThat(orderRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("POST /orders/batch: 207 и ошибки по отдельным элементам")
+    void addOrders_whenSomeInvalid_returns207WithPerItemErrors() throws Exception {
+        var customer = customer("Evgeny", "Lim", "test@gmail.com", "+79281112233");
+
+        var valid = new OrderRequestDto();
+        valid.setCustomerId(customer.getId());
+        valid.setOrderStatus(OrderStatus.NEW);
+
+        var unknownCustomer = new OrderRequestDto();
+        unknownCustomer.setCustomerId(999999L);
+        unknownCustomer.setOrderStatus(OrderStatus.NEW);
+
+        var missingStatus = new OrderRequestDto();
+        missingStatus.setCustomerId(customer.getId());
+
+        mockMvc.perform(post("/orders/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(valid, unknownCustomer, missingStatus))))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$[0].created").value(true))
+                .andExpect(jsonPath("$[1].created").value(false))
+                .andExpect(jsonPath("$[1].error").value("Клиент с id: 999999 не найден"))
+                .andExpect(jsonPath("$[2].created").value(false))
+                .andExpect(jsonPath("$[2].error").value("Статус заказа не должен быть пустым"));
+
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("POST /orders/{id}/products/{pid}: 202, товар добавлен в заказ, повтор увеличивает количество")
     void addProductToOrder_returns202_andPersists() throws Exception {
         var customer = customer("Evgeny", "Lim", "test@gmail.com", "+79281112233");
         var product = product("Jelly bear", "yummy and chewy", BigDecimal.valueOf(100.00));
@@ -141,7 +253,15 @@ class OrderControllerIT {
                 .andExpect(status().isAccepted())
                 .andExpect(jsonPath("$.id").value(order.getId().longValue()))
                 .andExpect(jsonPath("$.productInfo[0].id").value(product.getId().longValue()))
-                .andExpect(jsonPath("$.productInfo[0].name").value("Jelly bear"));
+                .andExpect(jsonPath("$.productInfo[0].name").value("Jelly bear"))
+                .andExpect(jsonPath("$.productInfo[0].quantity").value(1));
+
+        mockMvc.perform(post("/orders/{orderId}/products/{productId}", order.getId(), product.getId())
+                        .param("quantity", "2"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.productInfo.length()").value(1))
+                .andExpect(jsonPath("$.productInfo[0].quantity").value(3))
+                .andExpect(jsonPath("$.productInfo[0].price").value(100.0));
 
         var reloaded = orderRepository.findByIdWithProducts(order.getId()).orElseThrow();
         assertThat(reloaded.getProducts())
@@ -160,13 +280,13 @@ class OrderControllerIT {
         var order1 = new OrderEntity();
         order1.setCustomer(customer);
         order1.setOrderStatus(OrderStatus.NEW);
-        order1.setProducts(new ArrayList<>(List.of(product1)));
+        order1.addProduct(product1);
         orderRepository.save(order1);
 
         var order2 = new OrderEntity();
         order2.setCustomer(customer);
         order2.setOrderStatus(OrderStatus.NEW);
-        order2.setProducts(new ArrayList<>(List.of(product2)));
+        order2.addProduct(product2);
         orderRepository.save(order2);
 
         mockMvc.perform(get("/orders")
@@ -182,6 +302,214 @@ class OrderControllerIT {
                 .andExpect(jsonPath("$.last").value(true));
     }
 
+    private void saveOrdersWithOwnCustomerAndProduct(int from, int to) {
+        for (int i = from; i < to; i++) {
+            var customer = customer("Name" + i, "Surname" + i, "user" + i + "@gmail.com", "+7928111" + (1000 + i));
+            var product = product("Product " + i, "description " + i, BigDecimal.valueOf(10 + i));
+            var order = new OrderEntity();
+            order.setCustomer(customer);
+            order.setOrderStatus(OrderStatus.NEW);
+            order.addProduct(product);
+            orderRepository.save(order);
+        }
+    }
+
+    private long countStatementsForOrdersPage() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/orders").param("size", "50"))
+                .andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("GET /orders: количество SQL-запросов на страницу не зависит от числа заказов")
+    void getAllOrders_statementCountDoesNotGrowWithPageSize() throws Exception {
+        saveOrdersWithOwnCustomerAndProduct(0, 2);
+        long statementsForSmallPage = countStatementsForOrdersPage();
+
+        saveOrdersWithOwnCustomerAndProduct(2, 20);
+        long statementsForLargePage = countStatementsForOrdersPage();
+
+        assertThat(statementsForLargePage).isEqualTo(statementsForSmallPage);
+        assertThat(statementsForLargePage).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("GET /orders/{id}: число SQL-запросов за HTTP-запрос публикуется в метрике с тегом маршрута")
+    void getOrderById_recordsStatementCountPerRoute() throws Exception {
+        saveOrdersWithOwnCustomerAndProduct(0, 3);
+        Long id = orderRepository.findAll().get(0).getId();
+        var before = meterRegistry.find("app.request.sql.statements")
+                .tags("method", "GET", "uri", "/orders/{id}")
+                .summary();
+        long countBefore = before == null ? 0 : before.count();
+        double totalBefore = before == null ? 0 : before.totalAmount();
+
+        mockMvc.perform(get("/orders/{id}", id))
+                .andExpect(status().isOk());
+
+        var summary = meterRegistry.find("app.request.sql.statements")
+                .tags("method", "GET", "uri", "/orders/{id}")
+                .summary();
+        assertThat(summary).isNotNull();
+        assertThat(summary.count() - countBefore).isEqualTo(1);
+        assertThat(summary.totalAmount() - totalBefore).isGreaterThan(0);
+    }
+
+    @Test
+    @DisplayName("GET /orders?after=: курсорная пагинация проходит все заказы без total")
+    void getAllOrders_whenAfterPassed_pagesByCursor() throws Exception {
+        var customer = customer("Evgeny", "Lim", "test@gmail.com", "+79281112233");
+        for (int i = 0; i < 3; i++) {
+            var order = new OrderEntity();
+            order.setCustomer(customer);
+            order.setOrderStatus(OrderStatus.NEW);
+            orderRepository.save(order);
+        }
+
+        var firstPage = mockMvc.perform(get("/orders")
+                .param("after", "")
+                .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.first").value(true))
+                .andExpect(jsonPath("$.last").value(false))
+                .andExpect(jsonPath("$.nextCursor").isString())
+                .andReturn();
+
+        String nextCursor = JsonPath.read(firstPage.getResponse().getContentAsString(), "$.nextCursor");
+
+        mockMvc.perform(get("/orders")
+                .param("after", nextCursor)
+                .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.first").value(false))
+                .andExpect(jsonPath("$.last").value(true))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /orders?after=...: 400 при некорректном курсоре")
+    void getAllOrders_whenCursorInvalid_returns400() throws Exception {
+        mockMvc.perform(get("/orders").param("after", "broken"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /orders/summary: отдает имя клиента, количество товаров и сумму заказа")
+    void getOrderSummaries_returnsAggregates() throws Exception {
+        var customer = customer("Evgeny", "Lim", "test@gmail.com", "+79281112233");
+        var product1 = product("Jelly bear", "yummy and chewy", BigDecimal.valueOf(100.00));
+        var product2 = product("Chocolate cookie",
+                "crunchy with rich chocolate flavor", BigDecimal.valueOf(50.00));
+
+        var order = new OrderEntity();
+        order.setCustomer(customer);
+        order.setOrderStatus(OrderStatus.NEW);
+        order.addProduct(product1);
+        order.addProduct(product2);
+        orderRepository.save(order);
+
+        var empty = new OrderEntity();
+        empty.setCustomer(customer);
+        empty.setOrderStatus(OrderStatus.NEW);
+        orderRepository.save(empty);
+
+        mockMvc.perform(get("/orders/summary").param("sort", "id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].id").value(order.getId().longValue()))
+                .andExpect(jsonPath("$.content[0].customerName").value("Evgeny Lim"))
+                .andExpect(jsonPath("$.content[0].productCount").value(2))
+                .andExpect(jsonPath("$.content[0].total").value(150.0))
+                .andExpect(jsonPath("$.content[0].productInfo").doesNotExist())
+                .andExpect(jsonPath("$.content[1].productCount").value(0))
+                .andExpect(jsonPath("$.content[1].total").value(0));
+
+        mockMvc.perform(get("/orders/summary").param("productId", product1.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].productCount").value(2));
+    }
+
+    @Test
+    @DisplayName("GET /customers/{id}/stats и GET /orders/stats: итоги пересчитываются при изменении товаров заказа")
+    void stats_areRefreshedOnOrderProductChanges() throws Exception {
+        var customer = customer("Evgeny", "Lim", "test@gmail.com", "+79281112233");
+        var product1 = product("Jelly bear", "yummy and chewy", BigDecimal.valueOf(100.00));
+        var product2 = product("Chocolate cookie",
+                "crunchy with rich chocolate flavor", BigDecimal.valueOf(50.00));
+
+        var body = new OrderRequestDto();
+        body.setOrderStatus(OrderStatus.NEW);
+        body.setCustomerId(customer.getId());
+        var created = mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Number orderId = JsonPath.read(created.getResponse().getContentAsString(), "$.id");
+
+        mockMvc.perform(post("/orders/{orderId}/products/{productId}", orderId, product1.getId()))
+                .andExpect(status().isAccepted());
+        mockMvc.perform(post("/orders/{orderId}/products/{productId}", orderId, product2.getId()))
+                .andExpect(status().isAccepted());
+
+        mockMvc.perform(get("/customers/{id}/stats", customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderCount").value(1))
+                .andExpect(jsonPath("$.revenue").value(150.0));
+
+        mockMvc.perform(delete("/orders/{orderId}/products/{productId}", orderId, product1.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/orders/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderCount").value(1))
+                .andExpect(jsonPath("$.revenue").value(50.0))
+                .andExpect(jsonPath("$.days.length()").value(1));
+
+        mockMvc.perform(delete("/orders/{id}", orderId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/customers/{id}/stats", customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderCount").value(0))
+                .andExpect(jsonPath("$.revenue").value(0));
+    }
+
+    @Test
+    @DisplayName("GET /orders/export: потоково отдает все заказы по фильтру в NDJSON")
+    void exportOrders_whenFiltered_streamsNdjson() throws Exception {
+        saveOrdersWithOwnCustomerAndProduct(0, 3);
+        var customer = customer("Evgeny", "Lim", "test@gmail.com", "+79281112233");
+        var completed = new OrderEntity();
+        completed.setCustomer(customer);
+        completed.setOrderStatus(OrderStatus.COMPLETED);
+        orderRepository.save(completed);
+
+        var asyncResult = mockMvc.perform(get("/orders/export").param("orderStatus", "NEW"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(3);
+        assertThat(lines).allSatisfy(line -> {
+            assertThat((String) JsonPath.read(line, "$.orderStatus")).isEqualTo("NEW");
+            assertThat((List<?>) JsonPath.read(line, "$.productInfo")).hasSize(1);
+        });
+    }
+
     @Test
     @DisplayName("GET /orders/{id}: 200, если найден")
     void getOrderById_whenFound_returns200() throws Exception {
@@ -197,6 +525,33 @@ class OrderControllerIT {
                 .andExpect(jsonPath("$.orderStatus").value("NEW"));
     }
 
+    @Test
+    @DisplayName("GET /orders/{id}: 200 из архива, если завершенный заказ перенесен архиватором")
+    void getOrderById_whenArchived_returns200FromArchive() throws Exception {
+        var customer = customer("Evgeny", "Lim", "test@gmail.com", "+79281112233");
+        var product = product("Jelly bear", "yummy and chewy", BigDecimal.valueOf(100));
+        var order = new OrderEntity();
+        order.setCustomer(customer);
+        order.setOrderStatus(OrderStatus.COMPLETED);
+        order.addProduct(product, 2);
+        orderRepository.save(order);
+        jdbcTemplate.update("update orders set created_date = ? where id = ?",
+                LocalDateTime.now().minusYears(1), order.getId());
+
+        int archived = orderArchiveService.archiveOlderThan(LocalDateTime.now().minusMonths(6));
+
+        assertThat(archived).isEqualTo(1);
+        assertThat(orderRepository.existsById(order.getId())).isFalse();
+        mockMvc.perform(get("/orders/{id}", order.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.id").value(order.getId()))
+                .andExpect(jsonPath("$.orderStatus").value("COMPLETED"))
+                .andExpect(jsonPath("$.customerInfo.email").value("test@gmail.com"))
+                .andExpect(jsonPath("$.productInfo[0].id").value(product.getId()))
+                .andExpect(jsonPath("$.productInfo[0].quantity").value(2));
+    }
+
     @Test
     @DisplayName("GET /orders/{id}: 404, если не найден")
     void getOrderById_whenNotFound_returns404() throws Exception {
@@ -231,7 +586,8 @@ class OrderControllerIT {
         var order = new OrderEntity();
         order.setCustomer(customer);
         order.setOrderStatus(OrderStatus.NEW);
-        order.setProducts(new ArrayList<>(List.of(product1, product2)));
+        order.addProduct(product1);
+        order.addProduct(product2);
         orderRepository.save(order);
 
         mockMvc.perform(delete("/orders/{orderId}/products/{productId}",  order.getId(), product1.getId()))
@@ -246,6 +602,81 @@ class OrderControllerIT {
                 .containsExactly(product2.getId());
     }
 
+    @Test
+    @DisplayName("PUT /orders/{id}/products: 200 и в БД остается ровно переданный набор товаров")
+    void replaceOrderProducts_whenFound_returns200() throws Exception {
+        var customer = customer("Evgeny", "Lim", "test@gmail.com", "+79281112233");
+        var product1 = product("Jelly bear", "yummy and chewy", BigDecimal.valueOf(100.00));
+        var product2 = product("Chocolate cookie",
+                "crunchy with rich chocolate flavor", BigDecimal.valueOf(50.00));
+        var product3 = product("Lollipop", "sweet", BigDecimal.valueOf(10.00));
+
+        var order = new OrderEntity();
+        order.setCustomer(customer);
+        order.setOrderStatus(OrderStatus.NEW);
+        order.addProduct(product1);
+        order.addProduct(product2);
+        orderRepository.save(order);
+
+        mockMvc.perform(put("/orders/{id}/products", order.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(product2.getId(), product3.getId()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(order.getId().longValue()))
+                .andExpect(jsonPath("$.productInfo.length()").value(2));
+
+        var reloaded = orderRepository.findByIdWithProducts(order.getId()).orElseThrow();
+        assertThat(reloaded.getProducts())
+                .extracting(ProductEntity::getId)
+                .containsExactlyInAnyOrder(product2.getId(), product3.getId());
+    }
+
+    @Test
+    @DisplayName("PUT /orders/{id}/products: 404, если товар не найден")
+    void replaceOrderProducts_whenProductNotFound_returns404() throws Exception {
+        var customer = customer("Evgeny", "Lim", "test@gmail.com", "+79281112233");
+        var order = new OrderEntity();
+        order.setCustomer(customer);
+        order.setOrderStatus(OrderStatus.NEW);
+        orderRepository.save(order);
+
+        mockMvc.perform(put("/orders/{id}/products", order.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[999999]"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /orders/status-transitions: переводит только заказы в исходном статусе и возвращает их количество")
+    void transitionOrders_updatesOnlyMatchingStatus() throws Exception {
+        var customer = customer("Evgeny", "Lim", "test@gmail.com", "+79281112233");
+        List<OrderEntity> orders = new ArrayList<>();
+        for (OrderStatus status : List.of(OrderStatus.PROCESSING, OrderStatus.PROCESSING, OrderStatus.NEW)) {
+            var order = new OrderEntity();
+            order.setCustomer(customer);
+            order.setOrderStatus(status);
+            orders.add(orderRepository.save(order));
+        }
+
+        mockMvc.perform(post("/orders/status-transitions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"from\":\"PROCESSING\",\"to\":\"COMPLETED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(2));
+
+        assertThat(orderRepository.findAllById(orders.stream().map(OrderEntity::getId).toList()))
+                .extracting(OrderEntity::getOrderStatus, OrderEntity::getVersion)
+                .containsExactlyInAnyOrder(
+                        tuple(OrderStatus.COMPLETED, 1L),
+                        tuple(OrderStatus.COMPLETED, 1L),
+                        tuple(OrderStatus.NEW, 0L));
+
+        mockMvc.perform(post("/orders/status-transitions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"from\":\"COMPLETED\",\"to\":\"NEW\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("PATCH /orders/{id}: 200 и статус обновлен в БД")
     void updateOrder_when200_returnsUpdatedStatus() throws Exception {
@@ -267,4 +698,71 @@ class OrderControllerIT {
         var reloaded = orderRepository.findById(order.getId()).orElseThrow();
         assertThat(reloaded.getOrderStatus()).isEqualTo(OrderStatus.PROCESSING);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /orders/{id}: 304 без тела, если If-None-Match совпадает с ETag")
+    void getOrderById_whenETagMatches_returns304() throws Exception {
+        var customer = customer("Evgeny", "Lim", "test@gmail.com", "+79281112233");
+        var order = new OrderEntity();
+        order.setCustomer(customer);
+        order.setOrderStatus(OrderStatus.NEW);
+        orderRepository.save(order);
+
+        String eTag = mockMvc.perform(get("/orders/{id}", order.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/orders/{id}", order.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("PATCH /orders/{id}: 412 и статус не изменен, если If-Match устарел")
+    void updateOrder_whenIfMatchIsStale_returns412() throws Exception {
+        var customer = customer("Evgeny", "Lim", "test@gmail.com", "+79281112233");
+        var order = new OrderEntity();
+        order.setCustomer(customer);
+        order.setOrderStatus(OrderStatus.NEW);
+        orderRepository.save(order);
+
+        String eTag = mockMvc.perform(get("/orders/{id}", order.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        var body = new OrderRequestDto();
+        body.setOrderStatus(OrderStatus.PROCESSING);
+        mockMvc.perform(patch("/orders/{id}", order.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isOk());
+
+        body.setOrderStatus(OrderStatus.CANCELED);
+        mockMvc.perform(patch("/orders/{id}", order.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isPreconditionFailed());
+
+        var reloaded = orderRepository.findById(order.getId()).orElseThrow();
+        assertThat(reloaded.getOrderStatus()).isEqualTo(OrderStatus.PROCESSING);
+    }
+
+    @Test
+    @DisplayName("GET /orders: отдает CBOR при Accept: application/cbor")
+    void getAllOrders_whenAcceptCbor_returnsCbor() throws Exception {
+        saveOrdersWithOwnCustomerAndProduct(0, 3);
+
+        byte[] body = mockMvc.perform(get("/orders").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertThat(page.get("totalElements").asLong()).isEqualTo(3);
+        assertThat(page.get("content")).hasSize(3);
+        assertThat(page.get("content").get(0).get("productInfo")).hasSize(1);
+    }
+}
@@ -0,0 +1,112 @@
+package com.project.employee.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderLinesIT {
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:mem:order-lines;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+        registry.add("spring.flyway.enabled", () -> "false");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("app.audit.enabled", () -> "false");
+        registry.add("app.partitions.orders.enabled", () -> "false");
+        registry.add("app.orders.archive.enabled", () -> "false");
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+
+    private String orderLines;
+    private Number jellyId;
+    private Number cookieId;
+
+    private Number create(String path, String body) throws Exception {
+        String json = mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(json, "$.id");
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Number customerId = create("/customers", """
+                {"firstName": "Evgeny", "lastName": "Lim", "email": "%s@gmail.com", "phoneNumber": "+7928%07d"}
+                """.formatted(suffix, Math.abs(suffix.hashCode()) % 10_000_000));
+        jellyId = create("/products", """
+                {"name": "Jelly bear %s", "description": "yummy and chewy", "price": 100.00}
+                """.formatted(suffix));
+        cookieId = create("/products", """
+                {"name": "Cookie %s", "description": "crunchy", "price": 50.00}
+                """.formatted(suffix));
+        Number orderId = create("/orders", """
+                {"customerId": %d, "orderStatus": "NEW"}
+                """.formatted(customerId.longValue()));
+        orderLines = "/orders/" + orderId + "/lines";
+    }
+
+    @Test
+    @DisplayName("PUT /orders/{id}/lines: позиция без товара или с нулевым количеством - 400 с ошибками по полям")
+    void replaceOrderLines_whenLineInvalid_returns400() throws Exception {
+        mockMvc.perform(put(orderLines).contentType(MediaType.APPLICATION_JSON).content("""
+                        [{"productId": %d, "quantity": 0}, {"quantity": 1}, null]
+                        """.formatted(jellyId.longValue())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Validation Error"))
+                .andExpect(jsonPath("$.validationErrors", hasSize(3)))
+                .andExpect(jsonPath("$.validationErrors[*].field",
+                        containsInAnyOrder("lines[0].quantity", "lines[1].productId", "lines[2].<list element>")));
+    }
+
+    @Test
+    @DisplayName("PUT /orders/{id}/lines: повторная замена возвращает актуальные количества без устаревших позиций")
+    void replaceOrderLines_whenReplacedTwice_returnsFreshLines() throws Exception {
+        mockMvc.perform(put(orderLines).contentType(MediaType.APPLICATION_JSON).content("""
+                        [{"productId": %d, "quantity": 2}, {"productId": %d, "quantity": 1}]
+                        """.formatted(jellyId.longValue(), cookieId.longValue())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productInfo", hasSize(2)));
+
+        mockMvc.perform(put(orderLines).contentType(MediaType.APPLICATION_JSON).content("""
+                        [{"productId": %d, "quantity": 3}, {"productId": %d, "quantity": 2}]
+                        """.formatted(jellyId.longValue(), jellyId.longValue())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productInfo", hasSize(1)))
+                .andExpect(jsonPath("$.productInfo[0].quantity").value(5));
+
+        mockMvc.perform(get(orderLines.replace("/lines", "")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productInfo[*].quantity", hasItem(5)))
+                .andExpect(jsonPath("$.productInfo", hasSize(1)));
+    }
+}
@@ -0,0 +1,95 @@
+package com.project.employee.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyKeyFilterTest {
+
+    private IdempotencyKeyFilter filter;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyKeyFilter(new InMemoryIdempotencyStore(100, Duration.ofHours(1), Duration.ofMinutes(1)),
+                new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry());
+        executions = new AtomicInteger();
+    }
+
+    private MockHttpServletResponse post(String key, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/orders");
+        request.setServletPath("/orders");
+        request.addHeader(IdempotencyKeyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                String received = new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                long id = executions.incrementAndGet();
+                resp.setStatus(HttpServletResponse.SC_CREATED);
+                resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                resp.setHeader(HttpHeaders.LOCATION, "/orders/" + id);
+                resp.setHeader(HttpHeaders.ETAG, "\"0.1.0.0\"");
+                resp.addHeader(HttpHeaders.SET_COOKIE, "session=1");
+                resp.getWriter().write("{\"id\":" + id + ",\"echo\":" + received + "}");
+            }
+        }));
+        return response;
+    }
+
+    @Test
+    @DisplayName("повтор с тем же ключом и телом возвращает сохраненный ответ вместе с Location и ETag")
+    void replay_keepsHeaders() throws Exception {
+        MockHttpServletResponse first = post("key-1", "{\"customerId\":1}");
+        MockHttpServletResponse second = post("key-1", "{\"customerId\":1}");
+
+        assertThat(executions).hasValue(1);
+        assertThat(first.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(second.getStatus()).isEqualTo(201);
+        assertThat(second.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(second.getHeader(HttpHeaders.LOCATION)).isEqualTo("/orders/1");
+        assertThat(second.getHeader(HttpHeaders.ETAG)).isEqualTo("\"0.1.0.0\"");
+        assertThat(second.getHeader(HttpHeaders.SET_COOKIE)).isNull();
+        assertThat(second.getContentAsString()).isEqualTo(first.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("повтор ключа с другим телом запроса - 422, обработчик не вызывается")
+    void reuse_withDifferentBody_returnsUnprocessableEntity() throws Exception {
+        post("key-1", "{\"customerId\":1}");
+
+        MockHttpServletResponse reused = post("key-1", "{\"customerId\":2}");
+
+        assertThat(executions).hasValue(1);
+        assertThat(reused.getStatus()).isEqualTo(422);
+        assertThat(reused.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(reused.getContentAsString()).contains("key-1");
+    }
+
+    @Test
+    @DisplayName("обработчик получает исходное тело запроса после вычисления отпечатка")
+    void chain_receivesOriginalBody() throws Exception {
+        MockHttpServletResponse response = post("key-2", "{\"customerId\":7}");
+
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":1,\"echo\":{\"customerId\":7}}");
+    }
+}
@@ -0,0 +1,60 @@
+package com.project.employee.idempotency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryIdempotencyStoreTest {
+
+    private static StoredResponse response(String body) {
+        return new StoredResponse("fp", 201, "application/json", new HttpHeaders(), body.getBytes());
+    }
+
+    @Test
+    @DisplayName("LRU: при переполнении вытесняются завершенные ответы, а не выполняющиеся резервы")
+    void eviction_keepsInFlightReservations() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(2, Duration.ofHours(1), Duration.ofMinutes(1));
+
+        assertThat(store.tryReserve("in-flight")).isTrue();
+        store.complete("done", response("{}"));
+        assertThat(store.tryReserve("next")).isTrue();
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.find("done")).isEmpty();
+        assertThat(store.tryReserve("in-flight")).isFalse();
+        assertThat(store.tryReserve("next")).isFalse();
+    }
+
+    @Test
+    @DisplayName("LRU: если все записи выполняются, резерв не вытесняется и хранилище временно растет")
+    void eviction_whenOnlyInFlight_growsInsteadOfDroppingReservation() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(1, Duration.ofHours(1), Duration.ofMinutes(1));
+
+        assertThat(store.tryReserve("first")).isTrue();
+        assertThat(store.tryReserve("second")).isTrue();
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.tryReserve("first")).isFalse();
+
+        store.complete("first", response("{}"));
+        store.release("second");
+        assertThat(store.find("first")).isPresent();
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("LRU: просроченный резерв вытесняется наравне с завершенными ответами")
+    void eviction_dropsExpiredReservation() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(1, Duration.ofHours(1), Duration.ZERO);
+
+        assertThat(store.tryReserve("stale")).isTrue();
+        store.complete("done", response("{}"));
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.find("done")).isPresent();
+    }
+}
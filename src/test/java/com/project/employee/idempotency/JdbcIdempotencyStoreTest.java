@@ -0,0 +1,100 @@
+package com.project.employee.idempotency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.net.URI;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcIdempotencyStoreTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private JdbcIdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName("idempotency-" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE")
+                .addScripts("db/migration/V8__idempotency_keys.sql", "db/migration/V14__idempotency_keys_fingerprint.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        store = new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1), Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    @DisplayName("tryReserve: второй резерв того же ключа не проходит, пока первый не завершен")
+    void tryReserve_whenReserved_returnsFalse() {
+        assertThat(store.tryReserve("key")).isTrue();
+        assertThat(store.tryReserve("key")).isFalse();
+        assertThat(store.find("key")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("complete: сохраняет отпечаток, статус, тело и заголовки ответа")
+    void complete_storesResponseWithHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setLocation(URI.create("/orders/42"));
+        headers.add(HttpHeaders.ETAG, "\"0.1.0.0\"");
+        headers.add("X-Trace", "a");
+        headers.add("X-Trace", "b");
+        store.tryReserve("key");
+
+        store.complete("key", new StoredResponse("abc", 201, "application/json", headers, "{\"id\":42}".getBytes()));
+
+        StoredResponse stored = store.find("key").orElseThrow();
+        assertThat(stored.fingerprint()).isEqualTo("abc");
+        assertThat(stored.status()).isEqualTo(201);
+        assertThat(stored.contentType()).isEqualTo("application/json");
+        assertThat(stored.body()).isEqualTo("{\"id\":42}".getBytes());
+        assertThat(stored.headers().getLocation()).hasToString("/orders/42");
+        assertThat(stored.headers().getETag()).isEqualTo("\"0.1.0.0\"");
+        assertThat(stored.headers().get("X-Trace")).isEqualTo(List.of("a", "b"));
+        assertThat(store.tryReserve("key")).isFalse();
+    }
+
+    @Test
+    @DisplayName("release: снимает незавершенный резерв, но не трогает сохраненный ответ")
+    void release_removesOnlyReservation() {
+        store.tryReserve("pending");
+        store.tryReserve("done");
+        store.complete("done", new StoredResponse("fp", 200, null, new HttpHeaders(), new byte[0]));
+
+        store.release("pending");
+        store.release("done");
+
+        assertThat(store.tryReserve("pending")).isTrue();
+        assertThat(store.find("done")).isPresent();
+    }
+
+    @Test
+    @DisplayName("tryReserve: просроченная запись не мешает новому резерву")
+    void tryReserve_whenExpired_reservesAgain() {
+        store.tryReserve("key");
+        store.complete("key", new StoredResponse("fp", 201, null, new HttpHeaders(), new byte[0]));
+        jdbcTemplate.update("update idempotency_keys set expires_at = ? where idempotency_key = ?",
+                Timestamp.from(Instant.now().minusSeconds(1)), "key");
+
+        assertThat(store.find("key")).isEmpty();
+        assertThat(store.tryReserve("key")).isTrue();
+    }
+}
@@ -0,0 +1,259 @@
+package com.project.employee.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.employee.enums.OrderStatus;
+import com.project.employee.load.LoadDriver.Call;
+import com.project.employee.load.LoadDriver.Result;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ApiLoadIT {
+
+    private static final String DATASOURCE_URL = System.getProperty("loadtest.datasource.url");
+
+    private static final int CUSTOMERS = Integer.getInteger("loadtest.customers", 500);
+    private static final int PRODUCTS = Integer.getInteger("loadtest.products", 200);
+    private static final int ORDERS = Integer.getInteger("loadtest.orders", 10_000);
+    private static final int EMPLOYEES = Integer.getInteger("loadtest.employees", 100);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("loadtest.warmup-requests", 500);
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 5_000);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 16);
+    private static final String REPORT = System.getProperty("loadtest.report", "target/load-test-report.json");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        if (DATASOURCE_URL == null) {
+            registry.add("spring.datasource.url",
+                    () -> "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+            registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+            registry.add("spring.datasource.username", () -> "sa");
+            registry.add("spring.datasource.password", () -> "");
+            registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+            registry.add("spring.flyway.enabled", () -> "false");
+            registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
+            registry.add("app.search.email-index.enabled", () -> "true");
+            registry.add("app.audit.enabled", () -> "false");
+            registry.add("app.partitions.orders.enabled", () -> "false");
+        } else {
+            registry.add("spring.datasource.url", () -> DATASOURCE_URL);
+            registry.add("spring.datasource.username", () -> System.getProperty("loadtest.datasource.username"));
+            registry.add("spring.datasource.password", () -> System.getProperty("loadtest.datasource.password"));
+            registry.add("spring.flyway.enabled", () -> "true");
+            registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        }
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+    }
+
+    @LocalServerPort
+    int port;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private LoadDriver driver;
+    private final AtomicInteger uniqueSuffix = new AtomicInteger();
+
+    private List<Long> customerIds;
+    private List<Long> productIds;
+    private List<Long> orderIds;
+    private List<Long> employeeIds;
+
+    @Test
+    @DisplayName("Нагрузочный прогон: смешанная нагрузка на все контроллеры, отчет p50/p99 и RPS по эндпоинтам")
+    void mixedWorkload() throws Exception {
+        seed();
+        driver = new LoadDriver(objectMapper, port);
+
+        driver.run(WARMUP_REQUESTS, CONCURRENCY, this::nextCall);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long started = System.nanoTime();
+        List<Result> results = driver.run(REQUESTS, CONCURRENCY, this::nextCall);
+        double elapsedSeconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        Map<String, Object> report = report(results, elapsedSeconds, statistics);
+        Path reportPath = Path.of(REPORT);
+        Files.createDirectories(reportPath.toAbsolutePath().getParent());
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(reportPath.toFile(), report);
+        log.info("Отчет нагрузочного теста сохранен в {}:\n{}", reportPath.toAbsolutePath(),
+                objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+
+        assertThat(results)
+                .as("Ни один запрос не должен завершиться ошибкой сервера")
+                .noneMatch(result -> result.status() >= 500);
+    }
+
+    private void seed() {
+        long started = System.nanoTime();
+        jdbcTemplate.batchUpdate(
+                "insert into customers (first_name, last_name, email, phone_number, version) values (?, ?, ?, ?, 0)",
+                range(CUSTOMERS), 500, (ps, i) -> {
+                    ps.setString(1, "Name" + i);
+                    ps.setString(2, "Surname" + i);
+                    ps.setString(3, "customer" + i + "@load.test");
+                    ps.setString(4, "+7900" + String.format("%07d", i));
+                });
+        jdbcTemplate.batchUpdate(
+                "insert into products (name, description, price, version) values (?, ?, ?, 0)",
+                range(PRODUCTS), 500, (ps, i) -> {
+                    ps.setString(1, "Product " + i);
+                    ps.setString(2, "description " + i);
+                    ps.setBigDecimal(3, BigDecimal.valueOf(100 + i));
+                });
+        jdbcTemplate.batchUpdate(
+                "insert into employees (first_name, last_name, email, password, role, version) values (?, ?, ?, ?, ?, 0)",
+                range(EMPLOYEES), 500, (ps, i) -> {
+                    ps.setString(1, "Name" + i);
+                    ps.setString(2, "Surname" + i);
+                    ps.setString(3, "employee" + i + "@load.test");
+                    ps.setString(4, "Qwerty123!");
+                    ps.setString(5, i % 2 == 0 ? "MANAGER" : "ADMIN");
+                });
+        customerIds = jdbcTemplate.queryForList("select id from customers", Long.class);
+        productIds = jdbcTemplate.queryForList("select id from products", Long.class);
+        employeeIds = jdbcTemplate.queryForList("select id from employees", Long.class);
+
+        OrderStatus[] statuses = OrderStatus.values();
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(
+                "insert into orders (id, customer_id, status, created_date, version) "
+                        + "values (nextval('orders_id_seq'), ?, ?, ?, 0)",
+                range(ORDERS), 500, (ps, i) -> {
+                    ps.setLong(1, customerIds.get(i % customerIds.size()));
+                    ps.setString(2, statuses[i % statuses.length].name());
+                    ps.setTimestamp(3, Timestamp.valueOf(now.minusMinutes(ORDERS - i)));
+                });
+        orderIds = jdbcTemplate.queryForList("select id from orders", Long.class);
+
+        List<long[]> links = new ArrayList<>();
+        for (int i = 0; i < orderIds.size(); i++) {
+            int products = 1 + i % 3;
+            for (int j = 0; j < products; j++) {
+                links.add(new long[]{productIds.get((i + j * 7) % productIds.size()), orderIds.get(i)});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into order_lines (order_id, product_id, quantity, unit_price) "
+                        + "select ?, p.id, ?, p.price from products p where p.id = ?",
+                links, 1000, (ps, link) -> {
+                    ps.setLong(1, link[1]);
+                    ps.setInt(2, 1 + (int) (link[1] % 3));
+                    ps.setLong(3, link[0]);
+                });
+        log.info("Данные для нагрузочного теста подготовлены за {} мс: клиентов={}, товаров={}, заказов={}, сотрудников={}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                customerIds.size(), productIds.size(), orderIds.size(), employeeIds.size());
+    }
+
+    private static List<Integer> range(int size) {
+        List<Integer> range = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            range.add(i);
+        }
+        return range;
+    }
+
+    private Call nextCall() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(100);
+        if (roll < 20) {
+            return driver.get("GET /orders", "/orders?size=20&page=" + random.nextInt(10));
+        }
+        if (roll < 30) {
+            return driver.get("GET /orders?after", "/orders?after=&size=20");
+        }
+        if (roll < 35) {
+            return driver.get("GET /orders?withTotal=false", "/orders?withTotal=false&size=20&orderStatus=NEW");
+        }
+        if (roll < 50) {
+            return driver.get("GET /orders/{id}", "/orders/" + pick(orderIds));
+        }
+        if (roll < 60) {
+            return driver.post("POST /orders", "/orders",
+                    Map.of("orderStatus", "NEW", "customerId", pick(customerIds)));
+        }
+        if (roll < 65) {
+            return driver.post("POST /orders/{id}/products/{id}",
+                    "/orders/" + pick(orderIds) + "/products/" + pick(productIds), null);
+        }
+        if (roll < 72) {
+            return driver.get("GET /products", "/products?size=20&page=" + random.nextInt(5));
+        }
+        if (roll < 78) {
+            return driver.get("GET /products/{id}", "/products/" + pick(productIds));
+        }
+        if (roll < 80) {
+            int suffix = uniqueSuffix.incrementAndGet();
+            return driver.post("POST /products", "/products", Map.of(
+                    "name", "Load product " + suffix,
+                    "description", "created by load test",
+                    "price", "99.90"));
+        }
+        if (roll < 86) {
+            return driver.get("GET /customers", "/customers?size=20&page=" + random.nextInt(5));
+        }
+        if (roll < 90) {
+            return driver.get("GET /customers/{id}", "/customers/" + pick(customerIds));
+        }
+        if (roll < 92) {
+            return driver.get("GET /customers?emailLike",
+                    "/customers?size=20&emailIgnoreCase=true&emailLike=ER" + random.nextInt(CUSTOMERS));
+        }
+        if (roll < 96) {
+            return driver.get("GET /employees", "/employees?size=20&page=" + random.nextInt(5));
+        }
+        return driver.get("GET /employees/{id}", "/employees/" + pick(employeeIds));
+    }
+
+    private static Long pick(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private Map<String, Object> report(List<Result> results, double elapsedSeconds, Statistics statistics) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("database", DATASOURCE_URL == null ? "h2" : DATASOURCE_URL);
+        report.put("customers", CUSTOMERS);
+        report.put("products", PRODUCTS);
+        report.put("orders", ORDERS);
+        report.put("employees", EMPLOYEES);
+        report.put("concurrency", CONCURRENCY);
+        report.put("elapsedSeconds", LoadDriver.round(elapsedSeconds));
+        report.put("total", LoadDriver.stats(results, elapsedSeconds));
+        report.put("sqlStatementsPerRequest",
+                LoadDriver.round((double) statistics.getPrepareStatementCount() / results.size()));
+        report.put("endpoints", LoadDriver.statsByEndpoint(results, elapsedSeconds));
+        return report;
+    }
+}
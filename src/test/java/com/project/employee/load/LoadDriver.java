@@ -0,0 +1,124 @@
+package com.project.employee.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Slf4j
+class LoadDriver {
+
+    record Call(String endpoint, HttpRequest request) {
+    }
+
+    record Result(String endpoint, long nanos, int status) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    LoadDriver(ObjectMapper objectMapper, int port) {
+        this.objectMapper = objectMapper;
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    Call get(String endpoint, String path) {
+        return new Call(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build());
+    }
+
+    Call post(String endpoint, String path, Object body) {
+        try {
+            HttpRequest.BodyPublisher publisher = body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+            return new Call(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(publisher)
+                    .build());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    List<Result> run(int requests, int concurrency, Supplier<Call> calls) throws InterruptedException {
+        ConcurrentLinkedQueue<Result> results = new ConcurrentLinkedQueue<>();
+        AtomicInteger remaining = new AtomicInteger(requests);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            executor.submit(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    Call call = calls.get();
+                    long started = System.nanoTime();
+                    int status;
+                    try {
+                        status = httpClient.send(call.request(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (Exception e) {
+                        log.warn("Запрос {} завершился ошибкой: {}", call.endpoint(), e.getMessage());
+                        status = 599;
+                    }
+                    results.add(new Result(call.endpoint(), System.nanoTime() - started, status));
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Нагрузочный прогон не завершился за 30 минут");
+        }
+        return new ArrayList<>(results);
+    }
+
+    static Map<String, Object> statsByEndpoint(List<Result> results, double elapsedSeconds) {
+        Map<String, List<Result>> byEndpoint = results.stream()
+                .collect(Collectors.groupingBy(Result::endpoint, TreeMap::new, Collectors.toList()));
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        byEndpoint.forEach((endpoint, endpointResults) ->
+                endpoints.put(endpoint, stats(endpointResults, elapsedSeconds)));
+        return endpoints;
+    }
+
+    static Map<String, Object> stats(List<Result> results, double elapsedSeconds) {
+        long[] latencies = results.stream().mapToLong(Result::nanos).sorted().toArray();
+        long errors = results.stream().filter(result -> result.status() >= 400).count();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", latencies.length);
+        stats.put("errors", errors);
+        stats.put("rps", round(latencies.length / elapsedSeconds));
+        stats.put("p50Ms", percentileMillis(latencies, 0.50));
+        stats.put("p99Ms", percentileMillis(latencies, 0.99));
+        stats.put("maxMs", latencies.length == 0 ? 0 : round(latencies[latencies.length - 1] / 1_000_000.0));
+        stats.put("meanMs", round(Arrays.stream(latencies).average().orElse(0) / 1_000_000.0));
+        return stats;
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return round(sorted[Math.max(index, 0)] / 1_000_000.0);
+    }
+
+    static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
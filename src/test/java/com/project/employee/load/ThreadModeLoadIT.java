@@ -0,0 +1,133 @@
+package com.project.employee.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.employee.EmployeeApplication;
+import com.project.employee.load.LoadDriver.Call;
+import com.project.employee.load.LoadDriver.Result;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@EnabledForJreRange(min = JRE.JAVA_21)
+class ThreadModeLoadIT {
+
+    private static final int CUSTOMERS = Integer.getInteger("loadtest.customers", 200);
+    private static final int ORDERS = Integer.getInteger("loadtest.orders", 2_000);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("loadtest.warmup-requests", 1_000);
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 400);
+    private static final int DB_POOL_SIZE = Integer.getInteger("loadtest.db-pool-size", 20);
+    private static final String REPORT = System.getProperty("loadtest.thread-mode-report",
+            "target/thread-mode-report.json");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Сравнение платформенных и виртуальных потоков на GET /orders и POST /orders при высокой конкуренции")
+    void compareThreadModes() throws Exception {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("concurrency", CONCURRENCY);
+        report.put("dbPoolSize", DB_POOL_SIZE);
+        report.put("platform", runMode(false));
+        report.put("virtual", runMode(true));
+
+        Path reportPath = Path.of(REPORT);
+        Files.createDirectories(reportPath.toAbsolutePath().getParent());
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(reportPath.toFile(), report);
+        log.info("Отчет сравнения режимов потоков сохранен в {}:\n{}", reportPath.toAbsolutePath(),
+                objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+    }
+
+    private Map<String, Object> runMode(boolean virtual) throws Exception {
+        String mode = virtual ? "virtual" : "platform";
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(EmployeeApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:" + mode
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.hikari.maximum-pool-size=" + DB_POOL_SIZE,
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.jpa.show-sql=false",
+                        "spring.flyway.enabled=false",
+                        "app.audit.enabled=false",
+                        "app.partitions.orders.enabled=false");
+        if (virtual) {
+            builder.profiles("virtual-threads");
+        }
+
+        try (ConfigurableApplicationContext context = builder.run()) {
+            assertThat(context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false))
+                    .isEqualTo(virtual);
+            List<Long> customerIds = seed(context.getBean(JdbcTemplate.class));
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            LoadDriver driver = new LoadDriver(objectMapper, port);
+
+            driver.run(WARMUP_REQUESTS, CONCURRENCY, () -> nextCall(driver, customerIds));
+            long started = System.nanoTime();
+            List<Result> results = driver.run(REQUESTS, CONCURRENCY, () -> nextCall(driver, customerIds));
+            double elapsedSeconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+            assertThat(results)
+                    .as("Ни один запрос не должен завершиться ошибкой сервера в режиме %s", mode)
+                    .noneMatch(result -> result.status() >= 500);
+
+            Map<String, Object> modeReport = new LinkedHashMap<>();
+            modeReport.put("elapsedSeconds", LoadDriver.round(elapsedSeconds));
+            modeReport.put("total", LoadDriver.stats(results, elapsedSeconds));
+            modeReport.put("endpoints", LoadDriver.statsByEndpoint(results, elapsedSeconds));
+            return modeReport;
+        }
+    }
+
+    private static List<Long> seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.batchUpdate(
+                "insert into customers (first_name, last_name, email, phone_number, version) values (?, ?, ?, ?, 0)",
+                range(CUSTOMERS), 500, (ps, i) -> {
+                    ps.setString(1, "Name" + i);
+                    ps.setString(2, "Surname" + i);
+                    ps.setString(3, "customer" + i + "@load.test");
+                    ps.setString(4, "+7900" + String.format("%07d", i));
+                });
+        List<Long> customerIds = jdbcTemplate.queryForList("select id from customers", Long.class);
+        jdbcTemplate.batchUpdate(
+                "insert into orders (id, customer_id, status, created_date, version) "
+                        + "values (nextval('orders_id_seq'), ?, 'NEW', current_timestamp, 0)",
+                range(ORDERS), 500, (ps, i) -> ps.setLong(1, customerIds.get(i % customerIds.size())));
+        return customerIds;
+    }
+
+    private static List<Integer> range(int size) {
+        return IntStream.range(0, size).boxed().toList();
+    }
+
+    private static Call nextCall(LoadDriver driver, List<Long> customerIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(100) < 70) {
+            return driver.get("GET /orders", "/orders?size=20&page=" + random.nextInt(10));
+        }
+        return driver.post("POST /orders", "/orders", Map.of(
+                "orderStatus", "NEW",
+                "customerId", customerIds.get(random.nextInt(customerIds.size()))));
+    }
+}
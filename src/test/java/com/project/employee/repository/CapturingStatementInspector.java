@@ -0,0 +1,27 @@
+package com.project.employee.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class CapturingStatementInspector implements StatementInspector {
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static String find(String... fragments) {
+        return STATEMENTS.stream()
+                .filter(sql -> List.of(fragments).stream().allMatch(sql::contains))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("SQL с " + List.of(fragments) + " не выполнялся: " + STATEMENTS));
+    }
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,246 @@
+package com.project.employee.repository;
+
+import com.project.employee.entity.CustomerEntity;
+import com.project.employee.entity.EmployeeEntity;
+import com.project.employee.entity.OrderEntity;
+import com.project.employee.entity.ProductEntity;
+import com.project.employee.enums.EmployeeRole;
+import com.project.employee.enums.OrderStatus;
+import com.project.employee.exception.BadRequestException;
+import com.project.employee.specification.CustomerSpecification;
+import com.project.employee.specification.EmployeeSpecification;
+import com.project.employee.specification.FilterQuery;
+import com.project.employee.specification.ProductSpecification;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class FilterQueryRepositoryIT {
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:mem:filter-query;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+        registry.add("spring.flyway.enabled", () -> "false");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("app.audit.enabled", () -> "false");
+        registry.add("app.partitions.orders.enabled", () -> "false");
+        registry.add("app.orders.archive.enabled", () -> "false");
+    }
+
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    EmployeeRepository employeeRepository;
+    @Autowired
+    ProductRepository productRepository;
+    @Autowired
+    OrderRepository orderRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from order_lines");
+        jdbcTemplate.update("delete from orders");
+        customerRepository.deleteAllInBatch();
+        employeeRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        entityManagerFactory.getCache().evictAll();
+
+        CustomerEntity zotov = customerRepository.save(customer("Anna", "Zotova", "anna@mail.ru"));
+        CustomerEntity ivanov = customerRepository.save(customer("Boris", "Ivanov", "boris@mail.ru"));
+        customerRepository.save(customer("Anna", "Belova", "belova@gmail.com"));
+        customerRepository.save(customer("Anna", "Andreeva", "andreeva@gmail.com"));
+
+        employeeRepository.save(employee("Oleg", "petrov", EmployeeRole.MANAGER));
+        employeeRepository.save(employee("Ivan", "Abramov", EmployeeRole.MANAGER));
+        employeeRepository.save(employee("Olga", "Smirnova", EmployeeRole.ADMIN));
+
+        productRepository.save(product("Jelly bear", BigDecimal.valueOf(100)));
+        productRepository.save(product("Chocolate", BigDecimal.valueOf(250)));
+        productRepository.save(product("Marmalade", BigDecimal.valueOf(100)));
+
+        orderRepository.save(order(zotov));
+        orderRepository.save(order(ivanov));
+        orderRepository.save(order(zotov));
+    }
+
+    private static CustomerEntity customer(String firstName, String lastName, String email) {
+        CustomerEntity customer = new CustomerEntity();
+        customer.setFirstName(firstName);
+        customer.setLastName(lastName);
+        customer.setEmail(email);
+        customer.setPhoneNumber("+7928" + Math.abs(email.hashCode() % 10_000_000));
+        return customer;
+    }
+
+    private static EmployeeEntity employee(String firstName, String lastName, EmployeeRole role) {
+        EmployeeEntity employee = new EmployeeEntity();
+        employee.setFirstName(firstName);
+        employee.setLastName(lastName);
+        employee.setEmail(firstName.toLowerCase() + "@corp.ru");
+        employee.setPassword("Qwerty123!");
+        employee.setRole(role);
+        return employee;
+    }
+
+    private static ProductEntity product(String name, BigDecimal price) {
+        ProductEntity product = new ProductEntity();
+        product.setName(name);
+        product.setDescription("yummy");
+        product.setPrice(price);
+        return product;
+    }
+
+    private static OrderEntity order(CustomerEntity customer) {
+        OrderEntity order = new OrderEntity();
+        order.setCustomer(customer);
+        order.setOrderStatus(OrderStatus.NEW);
+        return order;
+    }
+
+    private FilterQueryCache cache(Class<?> entityClass) {
+        return new FilterQueryCache(entityManagerFactory.getMetamodel().managedType(entityClass),
+                entityClass.getSimpleName(), "id");
+    }
+
+    @Test
+    @DisplayName("findAll(FilterQuery): клиенты фильтруются по почте без учета регистра, с total и сортировкой")
+    void customers_filterQueryFiltersAndCounts() {
+        var pageable = PageRequest.of(0, 2, Sort.by("lastName"));
+
+        Page<CustomerEntity> page = customerRepository.findAll(
+                CustomerSpecification.query("Anna", null, "MAIL", true, null), pageable);
+
+        assertThat(page.getContent()).extracting(CustomerEntity::getLastName)
+                .containsExactly("Andreeva", "Belova");
+        assertThat(page.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("findSlice(FilterQuery): сотрудники сортируются без учета регистра, hasNext без count")
+    void employees_findSliceSortsIgnoringCase() {
+        Slice<EmployeeEntity> first = employeeRepository.findSlice(
+                EmployeeSpecification.query(null, null, null, false, EmployeeRole.MANAGER),
+                PageRequest.of(0, 1, Sort.by(Sort.Order.asc("lastName").ignoreCase())));
+        Slice<EmployeeEntity> second = employeeRepository.findSlice(
+                EmployeeSpecification.query(null, null, null, false, EmployeeRole.MANAGER),
+                PageRequest.of(1, 1, Sort.by(Sort.Order.asc("lastName").ignoreCase())));
+
+        assertThat(first.getContent()).extracting(EmployeeEntity::getLastName).containsExactly("Abramov");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).extracting(EmployeeEntity::getLastName).containsExactly("petrov");
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("findIds(FilterQuery): товары по цене с сортировкой по нескольким полям")
+    void products_findIdsWithMultiFieldSort() {
+        Page<ProductEntity> products = productRepository.findAll(
+                ProductSpecification.query(null, null, BigDecimal.valueOf(100)),
+                PageRequest.of(0, 10, Sort.by(Sort.Order.desc("price"), Sort.Order.asc("name"))));
+        Page<Long> ids = productRepository.findIds(
+                ProductSpecification.query(null, null, BigDecimal.valueOf(100)),
+                PageRequest.of(0, 10, Sort.by(Sort.Order.desc("price"), Sort.Order.asc("name"))));
+
+        assertThat(products.getContent()).extracting(ProductEntity::getName)
+                .containsExactly("Jelly bear", "Marmalade");
+        assertThat(ids.getContent()).isEqualTo(products.getContent().stream().map(ProductEntity::getId).toList());
+    }
+
+    @Test
+    @DisplayName("FilterQueryCache: один и тот же набор условий и сортировка возвращают закэшированный JPQL")
+    void filterQueryCache_reusesStatementPerShape() {
+        FilterQueryCache cache = cache(CustomerEntity.class);
+        Sort sort = Sort.by("lastName");
+
+        String first = cache.select(CustomerSpecification.query("Anna", null, null, false, null), sort);
+        String second = cache.select(CustomerSpecification.query("Boris", null, null, false, null), sort);
+        String otherShape = cache.select(CustomerSpecification.query(null, "Ivanov", null, false, null), sort);
+
+        assertThat(second).isSameAs(first);
+        assertThat(otherShape).isNotEqualTo(first);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(first).isEqualTo("select e from CustomerEntity e where e.firstName = :firstName"
+                + " order by e.lastName asc");
+    }
+
+    @Test
+    @DisplayName("FilterQueryCache: вложенная сортировка по связи ToOne добавляет left join")
+    void filterQueryCache_nestedSortJoinsToOneAssociation() {
+        String jpql = cache(OrderEntity.class).selectIds(FilterQuery.of(OrderEntity.class),
+                Sort.by(Sort.Order.asc("customer.lastName"), Sort.Order.desc("customer.firstName")));
+
+        assertThat(jpql).isEqualTo("select e.id from OrderEntity e left join e.customer s0"
+                + " order by s0.lastName asc, s0.firstName desc");
+    }
+
+    @Test
+    @DisplayName("FilterQueryCache: неизвестное поле, коллекция или связь целиком в сортировке - BadRequestException")
+    void filterQueryCache_rejectsUnsupportedSort() {
+        FilterQueryCache cache = cache(OrderEntity.class);
+        FilterQuery<OrderEntity> filter = FilterQuery.of(OrderEntity.class);
+
+        for (String property : List.of("unknown", "lines", "customer", "customer.orders", "customer.unknown",
+                "orderStatus.name", "customer..lastName")) {
+            assertThatThrownBy(() -> cache.select(filter, Sort.by(property)))
+                    .as(property)
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("Сортировка по полю");
+        }
+    }
+
+    @Test
+    @DisplayName("GET /customers, /employees, /products: неизвестное поле сортировки - 400")
+    void list_whenSortPropertyUnknown_returnsBadRequest() throws Exception {
+        for (String path : List.of("/customers", "/employees", "/products", "/orders")) {
+            mockMvc.perform(get(path).param("sort", "unknown,asc"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Сортировка по полю unknown не поддерживается"));
+        }
+    }
+
+    @Test
+    @DisplayName("GET /orders: сортировка по customer.lastName поддерживается")
+    void getAllOrders_sortsByNestedCustomerProperty() throws Exception {
+        mockMvc.perform(get("/orders").param("sort", "customer.lastName,asc").param("sort", "id,asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3))
+                .andExpect(jsonPath("$.content[0].customerInfo.lastName").value("Ivanov"))
+                .andExpect(jsonPath("$.content[1].customerInfo.lastName").value("Zotova"))
+                .andExpect(jsonPath("$.content[2].customerInfo.lastName").value("Zotova"));
+    }
+}
@@ -2,31 +2,44 @@ package com.project.employee.repository;
 
 import com.project.employee.entity.CustomerEntity;
 import com.project.employee.entity.OrderEntity;
+import com.project.employee.entity.OrderLineEntity;
 import com.project.employee.entity.ProductEntity;
 import com.project.employee.enums.OrderStatus;
+import com.project.employee.specification.OrderSpecification;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.hibernate.Hibernate;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
-@Testcontainers
+@Testcontainers(disabledWithoutDocker = true)
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 class OrderRepositoryIT {
 
@@ -44,6 +57,8 @@ class OrderRepositoryIT {
         registry.add("spring.flyway.enabled", () -> "true");
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
         registry.add("spring.jpa.open-in-view", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                CapturingStatementInspector.class::getName);
     }
 
     @Autowired
@@ -98,7 +113,8 @@ class OrderRepositoryIT {
         var order = new OrderEntity();
         order.setCustomer(customer);
         order.setOrderStatus(OrderStatus.NEW);
-        order.setProducts(new ArrayList<>(List.of(product1, product2)));
+        order.addProduct(product1);
+        order.addProduct(product2);
         orderRepository.save(order);
 
         flushAndClear();
@@ -106,7 +122,7 @@ class OrderRepositoryIT {
         var loaded = orderRepository.findByIdWithProducts(order.getId()).orElseThrow();
 
         assertThat(loaded.getId()).isEqualTo(order.getId());
-        assertThat(Hibernate.isInitialized(loaded.getProducts())).isTrue();
+        assertThat(Hibernate.isInitialized(loaded.getLines())).isTrue();
         assertThat(loaded.getProducts())
                 .extracting(ProductEntity::getId)
                 .containsExactlyInAnyOrder(product1.getId(), product2.getId());
@@ -120,7 +136,6 @@ class OrderRepositoryIT {
         var order = new OrderEntity();
         order.setCustomer(customer);
         order.setOrderStatus(OrderStatus.NEW);
-        order.setProducts(new ArrayList<>());
         orderRepository.save(order);
 
         flushAndClear();
@@ -128,12 +143,12 @@ class OrderRepositoryIT {
         var loaded = orderRepository.findByIdWithProducts(order.getId()).orElseThrow();
 
         assertThat(loaded.getProducts()).isEmpty();
-        assertThat(Hibernate.isInitialized(loaded.getProducts())).isTrue();
+        assertThat(Hibernate.isInitialized(loaded.getLines())).isTrue();
     }
 
     @Test
-    @DisplayName("save: сохраняет связь many-to-many в product_order")
-    void save_persistsJoinTable() {
+    @DisplayName("save: сохраняет позиции заказа в order_lines")
+    void save_persistsOrderLines() {
         var customer = saveCustomer("Evgeny", "Lim",
                 "test@gmail.com", "+79281223344");
         var product1 = saveProduct("Jelly bear", "yummy and chewy", BigDecimal.valueOf(100));
@@ -142,7 +157,8 @@ class OrderRepositoryIT {
         var order = new OrderEntity();
         order.setCustomer(customer);
         order.setOrderStatus(OrderStatus.NEW);
-        order.setProducts(new ArrayList<>(List.of(product1, product2)));
+        order.addProduct(product1);
+        order.addProduct(product2);
         orderRepository.save(order);
 
         flushAndClear();
@@ -152,8 +168,8 @@ class OrderRepositoryIT {
     }
 
     @Test
-    @DisplayName("Удаление товара из коллекции и save: запись удалиться из join-таблицы")
-    void removeProduct_whenExists_updatesJoinTable() {
+    @DisplayName("Удаление товара из заказа и save: позиция удаляется из order_lines")
+    void removeProduct_whenExists_deletesOrderLine() {
         var customer = saveCustomer("Evgeny", "Lim",
                 "test@gmail.com", "+79281223344");
         var product1 = saveProduct("Jelly bear", "yummy and chewy", BigDecimal.valueOf(100));
@@ -162,13 +178,14 @@ class OrderRepositoryIT {
         var order = new OrderEntity();
         order.setCustomer(customer);
         order.setOrderStatus(OrderStatus.NEW);
-        order.setProducts(new ArrayList<>(List.of(product1, product2)));
+        order.addProduct(product1);
+        order.addProduct(product2);
         orderRepository.save(order);
 
         flushAndClear();
 
         var loaded = orderRepository.findByIdWithProducts(order.getId()).orElseThrow();
-        loaded.getProducts().removeIf(p -> p.getId().equals(product1.getId()));
+        loaded.removeProduct(product1);
         orderRepository.save(loaded);
 
         flushAndClear();
@@ -179,10 +196,219 @@ class OrderRepositoryIT {
                 .containsExactly(product2.getId());
     }
 
+    @Test
+    @DisplayName("upsertLines: пакетно вставляет новые позиции с ценой товара и обновляет количество существующих")
+    void upsertLines_insertsAndUpdatesQuantities() {
+        var customer = saveCustomer("Evgeny", "Lim",
+                "test@gmail.com", "+79281223344");
+        var product1 = saveProduct("Jelly bear", "yummy and chewy", BigDecimal.valueOf(100));
+        var product2 = saveProduct("Chocolate cookie", "crunchy", BigDecimal.valueOf(50));
+        var order = saveOrder(customer, OrderStatus.NEW, product1);
+
+        flushAndClear();
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(product1.getId(), 3);
+        quantities.put(product2.getId(), 2);
+        int changed = orderRepository.upsertLines(order.getId(), quantities);
+
+        var loaded = orderRepository.findByIdWithProducts(order.getId()).orElseThrow();
+        assertThat(changed).isEqualTo(2);
+        assertThat(loaded.getLines())
+                .extracting(line -> line.getProduct().getId(), OrderLineEntity::getQuantity)
+                .containsExactlyInAnyOrder(tuple(product1.getId(), 3), tuple(product2.getId(), 2));
+        assertThat(loaded.getLines())
+                .extracting(OrderLineEntity::getUnitPrice)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactlyInAnyOrder(BigDecimal.valueOf(100), BigDecimal.valueOf(50));
+    }
+
     @Test
     @DisplayName("findByIdWithProducts: пустой Optional для несуществующего id")
     void findByIdWithProducts_whenNotExists_returnsEmptyOptional() {
         Optional<OrderEntity> missingProduct = orderRepository.findByIdWithProducts(123123L);
         assertThat(missingProduct).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("findIds(FilterQuery): фильтрует по статусу и товару с сортировкой и подсчетом total")
+    void findIds_withFilterQuery_filtersAndReusesShape() {
+        var customer = saveCustomer("Evgeny", "Lim",
+                "test@gmail.com", "+79281223344");
+        var product1 = saveProduct("Jelly bear", "yummy and chewy", BigDecimal.valueOf(100));
+        var product2 = saveProduct("Chocolate cookie", "crunchy", BigDecimal.valueOf(50));
+        var first = saveOrder(customer, OrderStatus.NEW, product1, product2);
+        var second = saveOrder(customer, OrderStatus.NEW, product1);
+        saveOrder(customer, OrderStatus.COMPLETED, product1);
+        saveOrder(customer, OrderStatus.NEW, product2);
+
+        flushAndClear();
+
+        var pageable = PageRequest.of(0, 10, Sort.by(Sort.Order.desc("id")));
+        var ids = orderRepository.findIds(OrderSpecification.query(null, OrderStatus.NEW, product1.getId()), pageable);
+        var other = orderRepository.findIds(OrderSpecification.query(null, OrderStatus.NEW, product2.getId()), pageable);
+
+        assertThat(ids.getContent()).containsExactly(second.getId(), first.getId());
+        assertThat(ids.getTotalElements()).isEqualTo(2);
+        assertThat(other.getTotalElements()).isEqualTo(2);
+        assertThat(OrderSpecification.query(null, OrderStatus.NEW, product1.getId()).shapeKey())
+                .isEqualTo(OrderSpecification.query(null, OrderStatus.COMPLETED, product2.getId()).shapeKey());
+    }
+
+    @Test
+    @DisplayName("getAllOrders: SQL Hibernate для id и догрузки заказов с фильтром по дате отсекает старые партиции")
+    void getAllOrdersQueries_withCreatedDate_prunePartitions() {
+        createPartitions();
+        var customer = saveCustomer("Evgeny", "Lim",
+                "test@gmail.com", "+79281223344");
+        var product = saveProduct("Jelly bear", "yummy and chewy", BigDecimal.valueOf(100));
+        var january = saveOrder(customer, OrderStatus.NEW, product);
+        var february = saveOrder(customer, OrderStatus.NEW, product);
+        var march = saveOrder(customer, OrderStatus.NEW, product);
+        entityManager.flush();
+        moveOrder(january, LocalDateTime.of(2024, 1, 15, 10, 0));
+        moveOrder(february, LocalDateTime.of(2024, 2, 15, 10, 0));
+        moveOrder(march, LocalDateTime.of(2024, 3, 15, 10, 0));
+        entityManager.clear();
+        CapturingStatementInspector.clear();
+
+        LocalDateTime createdDate = LocalDateTime.of(2024, 3, 1, 0, 0);
+        var ids = orderRepository.findIdSlice(OrderSpecification.query(createdDate, OrderStatus.NEW, null),
+                PageRequest.of(0, 10, Sort.by(Sort.Order.desc("createdDate"), Sort.Order.desc("id"))));
+        var orders = orderRepository.findAllWithCustomerAndProductsByIdIn(ids.getContent(), createdDate);
+        String idQuery = CapturingStatementInspector.find("from orders", "fetch first");
+        String fetchQuery = CapturingStatementInspector.find("from orders", "join order_lines");
+
+        assertThat(ids.getContent()).containsExactly(march.getId());
+        assertThat(orders).extracting(OrderEntity::getId).containsExactly(march.getId());
+        assertThat(explain(idQuery, createdDate, OrderStatus.NEW.name(), 11))
+                .contains("orders_p2024_03")
+                .doesNotContain("orders_p2024_01", "orders_p2024_02");
+        assertThat(explain(fetchQuery, march.getId(), createdDate))
+                .contains("orders_p2024_03")
+                .doesNotContain("orders_p2024_01", "orders_p2024_02");
+    }
+
+    @Test
+    @DisplayName("findById: без created_date поиск проверяет PK-индекс каждой партиции, но не сканирует их целиком")
+    void findById_withoutCreatedDate_probesEveryPartitionIndex() {
+        createPartitions();
+        var customer = saveCustomer("Evgeny", "Lim",
+                "test@gmail.com", "+79281223344");
+        var order = saveOrder(customer, OrderStatus.NEW);
+        flushAndClear();
+        CapturingStatementInspector.clear();
+
+        assertThat(orderRepository.findById(order.getId())).isPresent();
+        String byId = CapturingStatementInspector.find("from orders", "where oe1_0.id=?");
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set local enable_seqscan = off");
+            }
+        });
+
+        assertThat(explain(byId, order.getId()))
+                .contains("orders_p2024_01", "orders_p2024_02", "orders_p2024_03", "orders_default")
+                .doesNotContain("Seq Scan on orders");
+    }
+
+    @Test
+    @DisplayName("order_lines: позицию нельзя добавить к несуществующему заказу")
+    void insertOrderLine_withMissingOrder_isRejected() {
+        var product = saveProduct("Jelly bear", "yummy and chewy", BigDecimal.valueOf(100));
+        flushAndClear();
+
+        assertThatThrownBy(() -> entityManager.createNativeQuery("""
+                        insert into order_lines (order_id, product_id, quantity, unit_price)
+                        values (?1, ?2, 1, 100)
+                        """)
+                .setParameter(1, Long.MAX_VALUE)
+                .setParameter(2, product.getId())
+                .executeUpdate())
+                .rootCause()
+                .hasMessageContaining("violates order reference");
+    }
+
+    @Test
+    @DisplayName("orders: заказ с позициями нельзя удалить в обход order_lines")
+    void deleteOrder_withLines_isRejected() {
+        var customer = saveCustomer("Evgeny", "Lim",
+                "test@gmail.com", "+79281223344");
+        var product = saveProduct("Jelly bear", "yummy and chewy", BigDecimal.valueOf(100));
+        var order = saveOrder(customer, OrderStatus.NEW, product);
+        flushAndClear();
+
+        assertThatThrownBy(() -> entityManager.createNativeQuery("delete from orders where id = ?1")
+                .setParameter(1, order.getId())
+                .executeUpdate())
+                .rootCause()
+                .hasMessageContaining("violates order reference");
+    }
+
+    @Test
+    @DisplayName("create_orders_partition: заказ с позициями переносится из партиции по умолчанию в новую")
+    void createOrdersPartition_movesOrderWithLinesOutOfDefault() {
+        var customer = saveCustomer("Evgeny", "Lim",
+                "test@gmail.com", "+79281223344");
+        var product = saveProduct("Jelly bear", "yummy and chewy", BigDecimal.valueOf(100));
+        var order = saveOrder(customer, OrderStatus.NEW, product);
+        entityManager.flush();
+        moveOrder(order, LocalDateTime.of(2023, 6, 15, 10, 0));
+
+        entityManager.createNativeQuery("select create_orders_partition(cast('2023-06-01' as date))")
+                .getSingleResult();
+
+        assertThat(entityManager.createNativeQuery("select count(*) from orders_p2023_06 where id = ?1")
+                .setParameter(1, order.getId())
+                .getSingleResult()).isEqualTo(1L);
+        assertThat(entityManager.createNativeQuery("select count(*) from order_lines where order_id = ?1")
+                .setParameter(1, order.getId())
+                .getSingleResult()).isEqualTo(1L);
+    }
+
+    private void createPartitions() {
+        entityManager.createNativeQuery("""
+                select create_orders_partition(cast(m as date))
+                from generate_series(timestamp '2024-01-01', timestamp '2024-03-01', interval '1 month') m
+                """).getResultList();
+    }
+
+    private String explain(String sql, Object... params) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                int count = (int) sql.chars().filter(c -> c == '?').count();
+                int padding = count - params.length;
+                for (int i = 0, index = 1; i < params.length; i++) {
+                    int repeat = i == 0 ? padding + 1 : 1;
+                    for (int r = 0; r < repeat; r++) {
+                        statement.setObject(index++, params[i]);
+                    }
+                }
+                List<String> plan = new ArrayList<>();
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        plan.add(rows.getString(1));
+                    }
+                }
+                return String.join("\n", plan);
+            }
+        });
+    }
+
+    private void moveOrder(OrderEntity order, LocalDateTime createdDate) {
+        entityManager.createNativeQuery("update orders set created_date = ?1 where id = ?2")
+                .setParameter(1, createdDate)
+                .setParameter(2, order.getId())
+                .executeUpdate();
+    }
+
+    private OrderEntity saveOrder(CustomerEntity customer, OrderStatus status, ProductEntity... products) {
+        var order = new OrderEntity();
+        order.setCustomer(customer);
+        order.setOrderStatus(status);
+        for (ProductEntity product : products) {
+            order.addProduct(product);
+        }
+        return orderRepository.save(order);
+    }
+}
@@ -0,0 +1,163 @@
+package com.project.employee.repository;
+
+import com.project.employee.dto.ProductRequestDto;
+import com.project.employee.dto.ProductResponseDto;
+import com.project.employee.entity.ProductEntity;
+import com.project.employee.exception.ResourceNotFoundException;
+import com.project.employee.service.ProductService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ProductCacheIT {
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:mem:product-cache;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+        registry.add("spring.flyway.enabled", () -> "false");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("app.audit.enabled", () -> "false");
+        registry.add("app.partitions.orders.enabled", () -> "false");
+    }
+
+    @Autowired
+    ProductService productService;
+    @Autowired
+    ProductRepository productRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void clean() {
+        productRepository.deleteAllInBatch();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private ProductResponseDto addProduct(String name, BigDecimal price) {
+        ProductRequestDto dto = new ProductRequestDto();
+        dto.setName(name);
+        dto.setDescription("yummy and chewy");
+        dto.setPrice(price);
+        return productService.addProduct(dto);
+    }
+
+    private CacheRegionStatistics productsRegion() {
+        return statistics.getDomainDataRegionStatistics("products");
+    }
+
+    private double cacheRequests(String name, String result) {
+        FunctionCounter counter = meterRegistry.find(name).tag("result", result).functionCounter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    @DisplayName("getProductById: повторное чтение берется из кэша второго уровня без SQL")
+    void getProductById_whenReadTwice_secondReadHitsCache() {
+        Long id = addProduct("Jelly bear", BigDecimal.valueOf(100)).getId();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        double hitsBefore = cacheRequests("hibernate.second.level.cache.requests", "hit");
+
+        productService.getProductById(id);
+        long statementsAfterFirstRead = statistics.getPrepareStatementCount();
+        ProductResponseDto second = productService.getProductById(id);
+
+        assertThat(second.getName()).isEqualTo("Jelly bear");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirstRead);
+        assertThat(productsRegion().getMissCount()).isEqualTo(1);
+        assertThat(productsRegion().getPutCount()).isEqualTo(1);
+        assertThat(productsRegion().getHitCount()).isEqualTo(1);
+        assertThat(cacheRequests("hibernate.second.level.cache.requests", "hit")).isGreaterThan(hitsBefore);
+    }
+
+    @Test
+    @DisplayName("updateProduct: после изменения кэш отдает новые данные без обращения к БД")
+    void updateProduct_refreshesCachedEntry() {
+        Long id = addProduct("Jelly bear", BigDecimal.valueOf(100)).getId();
+        productService.getProductById(id);
+
+        ProductRequestDto patch = new ProductRequestDto();
+        patch.setPrice(BigDecimal.valueOf(150));
+        productService.updateProduct(id, patch, null);
+        statistics.clear();
+
+        ProductResponseDto updated = productService.getProductById(id);
+
+        assertThat(updated.getPrice()).isEqualByComparingTo("150");
+        assertThat(productsRegion().getHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("removeProductById: из кэша вытесняется только удаленный товар")
+    void removeProductById_evictsOnlyDeletedEntry() {
+        Long id = addProduct("Jelly bear", BigDecimal.valueOf(100)).getId();
+        Long otherId = addProduct("Chocolate cookie", BigDecimal.valueOf(50)).getId();
+        productService.getProductById(id);
+        productService.getProductById(otherId);
+        assertThat(entityManagerFactory.getCache().contains(ProductEntity.class, id)).isTrue();
+
+        productService.removeProductById(id, null);
+        statistics.clear();
+
+        assertThatThrownBy(() -> productService.getProductById(id))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(productsRegion().getHitCount()).isZero();
+
+        assertThat(entityManagerFactory.getCache().contains(ProductEntity.class, otherId)).isTrue();
+        assertThat(productService.getProductById(otherId).getName()).isEqualTo("Chocolate cookie");
+        assertThat(productsRegion().getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("getAllProducts: повторный запрос попадает в кэш запросов, а вставка товара его инвалидирует")
+    void getAllProducts_usesQueryCache_andInvalidatesOnWrite() {
+        addProduct("Jelly bear", BigDecimal.valueOf(100));
+        var pageable = PageRequest.of(0, 10);
+        double hitsBefore = cacheRequests("hibernate.cache.query.requests", "hit");
+
+        productService.getAllProducts(null, null, BigDecimal.valueOf(100), false, pageable);
+        long statementsAfterFirstRead = statistics.getPrepareStatementCount();
+        productService.getAllProducts(null, null, BigDecimal.valueOf(100), false, pageable);
+
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirstRead);
+        assertThat(cacheRequests("hibernate.cache.query.requests", "hit")).isGreaterThan(hitsBefore);
+
+        addProduct("Chocolate cookie", BigDecimal.valueOf(100));
+        long missesBefore = statistics.getQueryCacheMissCount();
+        var page = productService.getAllProducts(null, null, BigDecimal.valueOf(100), false, pageable);
+
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(missesBefore + 1);
+        assertThat(page.getContent()).hasSize(2);
+    }
+}
@@ -0,0 +1,120 @@
+package com.project.employee.routing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.employee.dto.CustomerRequestDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReadReplicaRoutingIT {
+
+    private static final String URL =
+            "jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> URL);
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+        registry.add("spring.flyway.enabled", () -> "false");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
+        registry.add("app.audit.enabled", () -> "false");
+        registry.add("app.partitions.orders.enabled", () -> "false");
+        registry.add("app.datasource.replica.enabled", () -> "true");
+        registry.add("app.datasource.replica.url", () -> URL);
+        registry.add("app.datasource.replica.stickiness", () -> "30s");
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private double routed(String role) {
+        return meterRegistry.counter("app.datasource.routing", "role", role).count();
+    }
+
+    @Test
+    @DisplayName("GET /customers: read-only транзакция уходит в реплику")
+    void getAllCustomers_routesToReplica() throws Exception {
+        double primary = routed("primary");
+        double replica = routed("replica");
+
+        mockMvc.perform(get("/customers"))
+                .andExpect(status().isOk());
+
+        assertThat(routed("replica")).isGreaterThan(replica);
+        assertThat(routed("primary")).isEqualTo(primary);
+    }
+
+    @Test
+    @DisplayName("GET /orders/summary: сводка заказов читается из реплики")
+    void getOrderSummaries_routesToReplica() throws Exception {
+        double primary = routed("primary");
+        double replica = routed("replica");
+
+        mockMvc.perform(get("/orders/summary"))
+                .andExpect(status().isOk());
+
+        assertThat(routed("replica")).isGreaterThan(replica);
+        assertThat(routed("primary")).isEqualTo(primary);
+    }
+
+    @Test
+    @DisplayName("POST /customers: запись идет в primary, а чтение с cookie после записи тоже читает из primary")
+    void addCustomer_thenRead_isStickyToPrimary() throws Exception {
+        var body = new CustomerRequestDto();
+        body.setFirstName("Evgeny");
+        body.setLastName("Lim");
+        body.setEmail("routing@gmail.com");
+        body.setPhoneNumber("+79281112233");
+        double primary = routed("primary");
+
+        Cookie sticky = mockMvc.perform(post("/customers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE_NAME))
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+
+        assertThat(routed("primary")).isGreaterThan(primary);
+
+        double replica = routed("replica");
+        primary = routed("primary");
+        mockMvc.perform(get("/customers").cookie(sticky))
+                .andExpect(status().isOk());
+
+        assertThat(routed("replica")).isEqualTo(replica);
+        assertThat(routed("primary")).isGreaterThan(primary);
+    }
+
+    @Test
+    @DisplayName("POST /customers: неуспешная запись не закрепляет чтение за primary")
+    void addCustomer_whenInvalid_doesNotSetStickyCookie() throws Exception {
+        mockMvc.perform(post("/customers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(cookie().doesNotExist(ReadYourWritesFilter.COOKIE_NAME));
+    }
+}
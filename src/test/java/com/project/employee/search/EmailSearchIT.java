@@ -0,0 +1,140 @@
+package com.project.employee.search;
+
+import com.project.employee.dto.EmployeeRequestDto;
+import com.project.employee.dto.EmployeeResponseDto;
+import com.project.employee.entity.EmployeeEntity;
+import com.project.employee.enums.EmployeeRole;
+import com.project.employee.repository.EmployeeRepository;
+import com.project.employee.service.EmployeeService;
+import com.project.employee.specification.EmployeeSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class EmailSearchIT {
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:mem:email-search;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+        registry.add("spring.flyway.enabled", () -> "false");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("app.audit.enabled", () -> "false");
+        registry.add("app.partitions.orders.enabled", () -> "false");
+        registry.add("app.search.email-index.enabled", () -> "true");
+        registry.add("app.search.email-index.max-hits", () -> "2");
+    }
+
+    @Autowired
+    EmployeeService employeeService;
+    @Autowired
+    EmployeeRepository employeeRepository;
+    @Autowired
+    EmployeeEmailIndex emailIndex;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clean() {
+        employeeRepository.findAll().forEach(employee -> emailIndex.remove(employee.getId()));
+        employeeRepository.deleteAllInBatch();
+        addEmployee("Ivan.Petrov@example.com");
+        addEmployee("ivan_petrov@example.com");
+        addEmployee("ivanxpetrov@example.com");
+        addEmployee("sale50%off@shop.ru");
+    }
+
+    private void addEmployee(String email) {
+        EmployeeRequestDto dto = new EmployeeRequestDto();
+        dto.setFirstName("Ivan");
+        dto.setLastName("Petrov");
+        dto.setEmail(email);
+        dto.setPassword("Qwerty123!");
+        dto.setRole(EmployeeRole.MANAGER);
+        employeeService.addEmployee(dto);
+    }
+
+    private List<String> search(String emailLike, boolean ignoreCase) {
+        return employeeService.getEmployees(null, null, null, emailLike, ignoreCase, false,
+                        PageRequest.of(0, 20, Sort.by("id")))
+                .getContent().stream()
+                .map(EmployeeResponseDto::getEmail)
+                .toList();
+    }
+
+    private List<String> searchInDatabase(String emailLike, boolean ignoreCase) {
+        return employeeRepository.findAll(EmployeeSpecification.query(null, null, emailLike, ignoreCase, null),
+                        PageRequest.of(0, 20, Sort.by("id")))
+                .getContent().stream()
+                .map(EmployeeEntity::getEmail)
+                .toList();
+    }
+
+    @Test
+    @DisplayName("getEmployees: индекс и LIKE в БД одинаково трактуют регистр, % и _")
+    void getEmployees_indexAndDatabaseAgree() {
+        for (String needle : List.of("ivan_petrov", "Ivan.P", "ivan.p", "50%off", "n%p", "ivan_", "xpetrov")) {
+            for (boolean ignoreCase : List.of(false, true)) {
+                assertThat(emailIndex.search(needle, ignoreCase)).as(needle).isPresent();
+                assertThat(search(needle, ignoreCase)).as(needle + ", ignoreCase=" + ignoreCase)
+                        .isEqualTo(searchInDatabase(needle, ignoreCase));
+            }
+        }
+        assertThat(search("ivan_petrov", false)).containsExactly("ivan_petrov@example.com");
+        assertThat(search("50%off", false)).containsExactly("sale50%off@shop.ru");
+        assertThat(search("n%p", true)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("getEmployees: при превышении max-hits и для коротких строк поиск выполняется в БД")
+    void getEmployees_whenIndexFallsBack_usesDatabase() {
+        assertThat(emailIndex.search("petrov@", true)).isEmpty();
+        assertThat(search("petrov@", true)).containsExactly(
+                "Ivan.Petrov@example.com", "ivan_petrov@example.com", "ivanxpetrov@example.com");
+
+        assertThat(emailIndex.search("_", false)).isEmpty();
+        assertThat(search("_", false)).containsExactly("ivan_petrov@example.com");
+    }
+
+    @Test
+    @DisplayName("addEmployee: при откате транзакции сотрудник не попадает в индекс")
+    void addEmployee_whenTransactionRolledBack_isNotIndexed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            addEmployee("ghost@example.com");
+            status.setRollbackOnly();
+        });
+
+        assertThat(emailIndex.search("ghost@", true)).contains(Set.of());
+        assertThat(search("ghost@", true)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("getEmployees: почта, измененная в обход сервиса, не находится по устаревшему индексу")
+    void getEmployees_whenEmailChangedOutsideService_likeStillFilters() {
+        jdbcTemplate.update("update employees set email = 'renamed@example.com' where email = 'ivanxpetrov@example.com'");
+
+        assertThat(emailIndex.search("xpetrov", true)).hasValueSatisfying(ids -> assertThat(ids).hasSize(1));
+        assertThat(search("xpetrov", true)).isEmpty();
+    }
+}
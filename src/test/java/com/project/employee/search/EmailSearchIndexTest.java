@@ -0,0 +1,100 @@
+package com.project.employee.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailSearchIndexTest {
+
+    private EmployeeEmailIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new EmployeeEmailIndex(null, true, 2);
+        index.put(1L, "Ivan.Petrov@example.com");
+        index.put(2L, "ivan_petrov@example.com");
+        index.put(3L, "ivanxpetrov@example.com");
+        index.put(4L, "sale50%off@shop.ru");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("search: учитывает регистр, если ignoreCase=false")
+    void search_caseSensitive() {
+        assertThat(index.search("Ivan.P", false)).contains(Set.of(1L));
+        assertThat(index.search("ivan.p", false)).contains(Set.of());
+        assertThat(index.search("ivan.p", true)).contains(Set.of(1L));
+    }
+
+    @Test
+    @DisplayName("search: символы % и _ ищутся буквально, как и в экранированном LIKE в БД")
+    void search_treatsLikeWildcardsLiterally() {
+        assertThat(index.search("ivan_petrov", false)).contains(Set.of(2L));
+        assertThat(index.search("50%off", false)).contains(Set.of(4L));
+        assertThat(index.search("n%p", true)).contains(Set.of());
+    }
+
+    @Test
+    @DisplayName("search: больше max-hits совпадений - возвращает пусто, чтобы поиск ушел в БД")
+    void search_whenHitsExceedLimit_fallsBack() {
+        assertThat(index.search("petrov@", true)).isEmpty();
+        assertThat(index.search("example", true)).isEmpty();
+        assertThat(index.search("shop", true)).contains(Set.of(4L));
+    }
+
+    @Test
+    @DisplayName("search: строка короче n-граммы ищется в БД")
+    void search_whenNeedleShorterThanGram_fallsBack() {
+        assertThat(index.search("iv", true)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("put/remove: в транзакции применяются только после коммита")
+    void putAndRemove_insideTransaction_applyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.put(5L, "olga@corp.ru");
+        index.remove(4L);
+
+        assertThat(index.search("olga@", true)).contains(Set.of());
+        assertThat(index.search("shop", true)).contains(Set.of(4L));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(index.search("olga@", true)).contains(Set.of(5L));
+        assertThat(index.search("shop", true)).contains(Set.of());
+    }
+
+    @Test
+    @DisplayName("put: при откате транзакции индекс не меняется")
+    void put_whenTransactionRolledBack_isDiscarded() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.put(5L, "olga@corp.ru");
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(index.search("olga@", true)).contains(Set.of());
+    }
+
+    @Test
+    @DisplayName("put: новая почта заменяет старую в индексе")
+    void put_whenEmailChanged_reindexes() {
+        index.put(4L, "winter@shop.ru");
+
+        assertThat(index.search("50%off", false)).contains(Set.of());
+        assertThat(index.search("winter", false)).contains(Set.of(4L));
+    }
+}
@@ -0,0 +1,140 @@
+package com.project.employee.service;
+
+import com.project.employee.entity.CustomerEntity;
+import com.project.employee.entity.OrderEntity;
+import com.project.employee.entity.ProductEntity;
+import com.project.employee.enums.OrderStatus;
+import com.project.employee.repository.CustomerRepository;
+import com.project.employee.repository.OrderRepository;
+import com.project.employee.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(OrderPartitionService.class)
+class OrderPartitionServiceIT {
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.open-in-view", () -> "false");
+    }
+
+    @Autowired
+    OrderPartitionService orderPartitionService;
+    @Autowired
+    OrderRepository orderRepository;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    ProductRepository productRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    CustomerEntity customer;
+    ProductEntity product;
+
+    @BeforeEach
+    void setUp() {
+        orderPartitionService.createPartitions(YearMonth.of(2024, 1), YearMonth.of(2024, 2));
+        customer = new CustomerEntity();
+        customer.setFirstName("Evgeny");
+        customer.setLastName("Lim");
+        customer.setEmail("test@gmail.com");
+        customer.setPhoneNumber("+79281223344");
+        customer = customerRepository.save(customer);
+        product = new ProductEntity();
+        product.setName("Jelly bear");
+        product.setDescription("yummy and chewy");
+        product.setPrice(BigDecimal.valueOf(100));
+        product = productRepository.save(product);
+    }
+
+    @Test
+    @DisplayName("archivePartitionsBefore: завершенные заказы уходят в архив, партиция с незавершенными не удаляется")
+    void archivePartitionsBefore_keepsPartitionWithLiveOrders() {
+        var completed = saveJanuaryOrder(OrderStatus.COMPLETED);
+        var live = saveJanuaryOrder(OrderStatus.NEW);
+
+        var archived = orderPartitionService.archivePartitionsBefore(YearMonth.of(2024, 2));
+
+        assertThat(archived).isEmpty();
+        assertThat(partitionExists("orders_p2024_01")).isTrue();
+        assertThat(jdbcTemplate.queryForList("select id from orders", Long.class)).containsExactly(live.getId());
+        assertThat(jdbcTemplate.queryForList("select id from orders_archive", Long.class))
+                .containsExactly(completed.getId());
+        assertThat(jdbcTemplate.queryForList("select order_id from order_lines", Long.class))
+                .containsExactly(live.getId());
+        assertThat(jdbcTemplate.queryForList("select order_id from order_lines_archive", Long.class))
+                .containsExactly(completed.getId());
+    }
+
+    @Test
+    @DisplayName("archivePartitionsBefore: партиция только с завершенными заказами архивируется и удаляется")
+    void archivePartitionsBefore_dropsPartitionWithTerminalOrdersOnly() {
+        var completed = saveJanuaryOrder(OrderStatus.COMPLETED);
+        var canceled = saveJanuaryOrder(OrderStatus.CANCELED);
+
+        var archived = orderPartitionService.archivePartitionsBefore(YearMonth.of(2024, 2));
+
+        assertThat(archived).containsExactly("orders_p2024_01");
+        assertThat(partitionExists("orders_p2024_01")).isFalse();
+        assertThat(partitionExists("orders_p2024_02")).isTrue();
+        assertThat(jdbcTemplate.queryForList("select id from orders_archive", Long.class))
+                .containsExactlyInAnyOrder(completed.getId(), canceled.getId());
+        assertThat(jdbcTemplate.queryForObject("select count(*) from order_lines_archive", Integer.class))
+                .isEqualTo(2);
+    }
+
+    private OrderEntity saveJanuaryOrder(OrderStatus status) {
+        var order = new OrderEntity();
+        order.setCustomer(customer);
+        order.setOrderStatus(status);
+        order.addProduct(product);
+        order = orderRepository.save(order);
+        entityManager.flush();
+        jdbcTemplate.update("update orders set created_date = ? where id = ?",
+                LocalDateTime.of(2024, 1, 15, 10, 0), order.getId());
+        entityManager.clear();
+        return order;
+    }
+
+    private boolean partitionExists(String partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select to_regclass(?) is not null", Boolean.class, partition));
+    }
+}
@@ -1,18 +1,30 @@
 package com.project.employee.service;
 
+import com.project.employee.audit.AuditAction;
+import com.project.employee.audit.AuditLog;
+import com.project.employee.dto.OrderLineRequestDto;
 import com.project.employee.dto.OrderRequestDto;
 import com.project.employee.dto.OrderResponseDto;
+import com.project.employee.dto.OrderStatusTransitionRequestDto;
+import com.project.employee.dto.OrderStatusTransitionResultDto;
 import com.project.employee.dto.PageResponse;
 import com.project.employee.dto.ProductResponseDto;
+import com.project.employee.entity.ArchivedOrderEntity;
 import com.project.employee.entity.CustomerEntity;
 import com.project.employee.entity.OrderEntity;
 import com.project.employee.entity.ProductEntity;
 import com.project.employee.enums.OrderStatus;
+import com.project.employee.exception.BadRequestException;
+import com.project.employee.exception.PreconditionFailedException;
 import com.project.employee.exception.ResourceNotFoundException;
 import com.project.employee.mappers.OrderMapper;
+import com.project.employee.repository.ArchivedOrderRepository;
 import com.project.employee.repository.CustomerRepository;
 import com.project.employee.repository.OrderRepository;
 import com.project.employee.repository.ProductRepository;
+import com.project.employee.specification.FilterQuery;
+import com.project.employee.utility.OrderCursor;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -27,16 +39,23 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -59,6 +78,18 @@ class OrderServiceTest {
     @Mock
     private OrderMapper  orderMapper;
 
+    @Mock
+    private OrderTotalsService orderTotalsService;
+
+    @Mock
+    private AuditLog auditLog;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -80,7 +111,7 @@ class OrderServiceTest {
         productEntity = product(PRODUCT_ID, "MacBook Pro",
                 "Apple laptop", BigDecimal.valueOf(100000));
 
-        orderEntity = order(ORDER_ID, OrderStatus.NEW, customerEntity, new ArrayList<>(),
+        orderEntity = order(ORDER_ID, OrderStatus.NEW, customerEntity,
                 LocalDateTime.of(2025, 1, 1, 10, 0));
 
 
@@ -113,12 +144,11 @@ class OrderServiceTest {
     }
 
     private static OrderEntity order(long id, OrderStatus status, CustomerEntity customer,
-                                     List<ProductEntity> products, LocalDateTime created) {
+                                     LocalDateTime created) {
         OrderEntity orderEntity = new OrderEntity();
         orderEntity.setId(id);
         orderEntity.setOrderStatus(status);
         orderEntity.setCustomer(customer);
-        orderEntity.setProducts(products);
         orderEntity.setCreatedDate(created);
         return orderEntity;
     }
@@ -132,6 +162,13 @@ class OrderServiceTest {
         return info;
     }
 
+    private static OrderLineRequestDto line(Long productId, int quantity) {
+        OrderLineRequestDto line = new OrderLineRequestDto();
+        line.setProductId(productId);
+        line.setQuantity(quantity);
+        return line;
+    }
+
     private static OrderRequestDto requestDto(OrderStatus status) {
         OrderRequestDto reqDto = new OrderRequestDto();
         reqDto.setOrderStatus(status);
@@ -163,7 +200,10 @@ class OrderServiceTest {
 
         verify(orderMapper).toEntity(requestDto);
         verify(orderMapper).toResponseDto(orderEntity);
-        verifyNoMoreInteractions(orderRepository, customerRepository, productRepository, orderMapper);
+        verify(orderTotalsService).refreshOrders(List.of(ORDER_ID));
+        verify(auditLog).record("Order", ORDER_ID, AuditAction.CREATE, List.of("customer", "orderStatus"));
+        verifyNoMoreInteractions(orderRepository, customerRepository, productRepository, orderMapper,
+                orderTotalsService, auditLog);
     }
 
     @Test
@@ -201,7 +241,7 @@ class OrderServiceTest {
         when(orderMapper.toResponseDto(orderEntity)).thenReturn(expectedResponseDto);
 
         // when
-        OrderResponseDto result = orderService.addProductToOrder(ORDER_ID, PRODUCT_ID);
+        OrderResponseDto result = orderService.addProductToOrder(ORDER_ID, PRODUCT_ID, 1);
 
         // then
         ArgumentCaptor<OrderEntity> captor = ArgumentCaptor.forClass(OrderEntity.class);
@@ -217,7 +257,31 @@ class OrderServiceTest {
         verify(orderRepository).findById(ORDER_ID);
         verify(productRepository).findById(PRODUCT_ID);
         verify(orderMapper).toResponseDto(orderEntity);
-        verifyNoMoreInteractions(orderRepository, productRepository, orderMapper);
+        verify(orderTotalsService).refreshOrders(List.of(ORDER_ID));
+        verifyNoMoreInteractions(orderRepository, productRepository, orderMapper, orderTotalsService);
+    }
+
+    @Test
+    @DisplayName("addProductToOrder: повторное добавление товара увеличивает количество в позиции")
+    void addProductToOrder_whenProductAlreadyInOrder_increasesQuantity() {
+        // given
+        orderEntity.addProduct(productEntity);
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(orderEntity));
+        when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.of(productEntity));
+        when(orderRepository.save(orderEntity)).thenReturn(orderEntity);
+        when(orderMapper.toResponseDto(orderEntity)).thenReturn(responseDto);
+
+        // when
+        orderService.addProductToOrder(ORDER_ID, PRODUCT_ID, 2);
+
+        // then
+        assertThat(orderEntity.getLines()).singleElement()
+                .satisfies(line -> {
+                    assertThat(line.getQuantity()).isEqualTo(3);
+                    assertThat(line.getUnitPrice()).isEqualByComparingTo(productEntity.getPrice());
+                });
+        verify(orderTotalsService).refreshOrders(List.of(ORDER_ID));
+        verify(auditLog).record("Order", ORDER_ID, AuditAction.UPDATE, List.of("products"));
     }
 
     @Test
@@ -228,7 +292,7 @@ class OrderServiceTest {
         when(orderRepository.findById(notExistedOrderId)).thenReturn(Optional.empty());
 
         // when and then
-        assertThatThrownBy(() -> orderService.addProductToOrder(notExistedOrderId, PRODUCT_ID))
+        assertThatThrownBy(() -> orderService.addProductToOrder(notExistedOrderId, PRODUCT_ID, 1))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Заказ с id: 12 не найден");
 
@@ -249,7 +313,7 @@ class OrderServiceTest {
 
         // when and then
         List<Long> before = orderEntity.getProducts().stream().map(ProductEntity::getId).toList();
-        assertThatThrownBy(() -> orderService.addProductToOrder(ORDER_ID, notExistedProductId))
+        assertThatThrownBy(() -> orderService.addProductToOrder(ORDER_ID, notExistedProductId, 1))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Товар с id: 11 не найден");
 
@@ -274,8 +338,10 @@ class OrderServiceTest {
         OrderEntity order2 = new OrderEntity();
         order2.setId(20L);
 
-        Page<OrderEntity> entityPage = new PageImpl<>(List.of(order1, order2), pageable, 5);
-        when(orderRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(entityPage);
+        Page<Long> idPage = new PageImpl<>(List.of(10L, 20L), pageable, 5);
+        when(orderRepository.findIds(any(FilterQuery.class), eq(pageable))).thenReturn(idPage);
+        when(orderRepository.findAllWithCustomerAndProductsByIdIn(List.of(10L, 20L)))
+                .thenReturn(List.of(order2, order1));
 
         OrderResponseDto dto1 = new OrderResponseDto();
         dto1.setId(10L);
@@ -286,7 +352,7 @@ class OrderServiceTest {
 
         // when
         PageResponse<OrderResponseDto> result = orderService.getAllOrders(
-                null, OrderStatus.NEW, null, pageable);
+                null, OrderStatus.NEW, null, true, pageable);
 
         // then
         assertThat(result.getContent()).extracting(OrderResponseDto::getId).containsExactly(10L, 20L);
@@ -297,7 +363,8 @@ class OrderServiceTest {
         assertThat(result.isFirst()).isFalse();
         assertThat(result.isLast()).isFalse();
 
-        verify(orderRepository).findAll(any(Specification.class), eq(pageable));
+        verify(orderRepository).findIds(any(FilterQuery.class), eq(pageable));
+        verify(orderRepository).findAllWithCustomerAndProductsByIdIn(List.of(10L, 20L));
         verify(orderMapper).toResponseDto(order1);
         verify(orderMapper).toResponseDto(order2);
         verifyNoMoreInteractions(orderRepository, orderMapper);
@@ -308,11 +375,11 @@ class OrderServiceTest {
     void getAllOrders_returnEmptyPage() {
         // given
         Pageable pageable = PageRequest.of(0, 10);
-        when(orderRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(Page.empty(pageable));
+        when(orderRepository.findIds(any(FilterQuery.class), eq(pageable))).thenReturn(Page.empty(pageable));
 
         // when
         PageResponse<OrderResponseDto> result = orderService.getAllOrders(
-                null ,null, null, pageable);
+                null ,null, null, true, pageable);
 
         // then
         assertThat(result.getContent()).isEmpty();
@@ -323,11 +390,96 @@ class OrderServiceTest {
         assertThat(result.isFirst()).isTrue();
         assertThat(result.isLast()).isTrue();
 
-        verify(orderRepository).findAll(any(Specification.class), eq(pageable));
+        verify(orderRepository).findIds(any(FilterQuery.class), eq(pageable));
+        verify(orderRepository, never()).findAllWithCustomerAndProductsByIdIn(any());
         verifyNoInteractions(orderMapper);
         verifyNoMoreInteractions(orderRepository);
     }
 
+    @Test
+    @DisplayName("getAllOrders: без подсчета total использует Slice и не запрашивает count")
+    void getAllOrders_whenWithoutTotal_returnsSliceResponse() {
+        // given
+        Pageable pageable = PageRequest.of(0, 1);
+
+        OrderEntity order1 = new OrderEntity();
+        order1.setId(10L);
+        when(orderRepository.findIdSlice(any(FilterQuery.class), eq(pageable)))
+                .thenReturn(new SliceImpl<>(List.of(10L), pageable, true));
+        when(orderRepository.findAllWithCustomerAndProductsByIdIn(List.of(10L))).thenReturn(List.of(order1));
+
+        OrderResponseDto dto1 = new OrderResponseDto();
+        dto1.setId(10L);
+        when(orderMapper.toResponseDto(order1)).thenReturn(dto1);
+
+        // when
+        PageResponse<OrderResponseDto> result = orderService.getAllOrders(
+                null, OrderStatus.NEW, null, false, pageable);
+
+        // then
+        assertThat(result.getContent()).extracting(OrderResponseDto::getId).containsExactly(10L);
+        assertThat(result.getTotalElements()).isNull();
+        assertThat(result.getTotalPages()).isNull();
+        assertThat(result.isFirst()).isTrue();
+        assertThat(result.isLast()).isFalse();
+
+        verify(orderRepository).findIdSlice(any(FilterQuery.class), eq(pageable));
+        verify(orderRepository).findAllWithCustomerAndProductsByIdIn(List.of(10L));
+        verify(orderRepository, never()).findIds(any(FilterQuery.class), any(Pageable.class));
+        verifyNoMoreInteractions(orderRepository);
+    }
+
+    @Test
+    @DisplayName("getAllOrdersAfter: отдает страницу по курсору и курсор следующей страницы без подсчета total")
+    void getAllOrdersAfter_whenMoreRowsThanSize_returnsNextCursor() {
+        // given
+        OrderEntity order1 = order(10L, OrderStatus.NEW, customerEntity,
+                LocalDateTime.of(2025, 1, 1, 10, 0));
+        OrderEntity order2 = order(20L, OrderStatus.NEW, customerEntity,
+                LocalDateTime.of(2025, 1, 2, 10, 0));
+        when(orderRepository.findIdSlice(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(10L, 20L), PageRequest.of(0, 2), true));
+        when(orderRepository.findAllWithCustomerAndProductsByIdIn(List.of(10L, 20L)))
+                .thenReturn(List.of(order1, order2));
+
+        OrderResponseDto dto1 = new OrderResponseDto();
+        dto1.setId(10L);
+        OrderResponseDto dto2 = new OrderResponseDto();
+        dto2.setId(20L);
+        when(orderMapper.toResponseDto(order1)).thenReturn(dto1);
+        when(orderMapper.toResponseDto(order2)).thenReturn(dto2);
+
+        // when
+        PageResponse<OrderResponseDto> result = orderService.getAllOrdersAfter(
+                null, null, null, "", 2);
+
+        // then
+        assertThat(result.getContent()).extracting(OrderResponseDto::getId).containsExactly(10L, 20L);
+        assertThat(result.getPageSize()).isEqualTo(2);
+        assertThat(result.getTotalElements()).isNull();
+        assertThat(result.getTotalPages()).isNull();
+        assertThat(result.isFirst()).isTrue();
+        assertThat(result.isLast()).isFalse();
+        assertThat(OrderCursor.decode(result.getNextCursor()))
+                .isEqualTo(new OrderCursor(order2.getCreatedDate(), 20L));
+
+        verify(orderRepository).findIdSlice(any(Specification.class), eq(PageRequest.of(0, 2,
+                Sort.by(Sort.Order.asc("createdDate"), Sort.Order.asc("id")))));
+        verify(orderRepository).findAllWithCustomerAndProductsByIdIn(List.of(10L, 20L));
+        verifyNoMoreInteractions(orderRepository);
+    }
+
+    @Test
+    @DisplayName("getAllOrdersAfter: должен выбросить исключение, если курсор некорректный")
+    void getAllOrdersAfter_whenCursorInvalid_throwsException() {
+        // when and then
+        assertThatThrownBy(() -> orderService.getAllOrdersAfter(null, null, null, "not-a-cursor", 10))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Некорректный курсор");
+
+        verifyNoInteractions(orderRepository, orderMapper);
+    }
+
     @Test
     @DisplayName("getOrderById: возвращает найденный заказ, который маппится в DTO")
     void getOrderById_whenOrderExists_returnResponseDto() {
@@ -354,6 +506,7 @@ class OrderServiceTest {
     void getOrderById_whenOrderDoesNotExist_throwsException() {
         // given
         when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findByIdWithCustomerAndProducts(ORDER_ID)).thenReturn(Optional.empty());
 
         // when and then
         assertThatThrownBy(() -> orderService.getOrderById(ORDER_ID))
@@ -361,30 +514,58 @@ class OrderServiceTest {
                 .hasMessageContaining("Заказ с id: " + ORDER_ID + " не найден");
 
         verify(orderRepository).findById(ORDER_ID);
+        verify(archivedOrderRepository).findByIdWithCustomerAndProducts(ORDER_ID);
         verify(orderMapper, never()).toResponseDto(any());
-        verifyNoMoreInteractions(orderRepository);
+        verifyNoMoreInteractions(orderRepository, archivedOrderRepository);
         verifyNoInteractions(orderMapper, customerRepository, productRepository);
     }
 
+    @Test
+    @DisplayName("getOrderById: если заказа нет в основной таблице, возвращает его из архива")
+    void getOrderById_whenOrderArchived_returnsArchivedDto() {
+        // given
+        ArchivedOrderEntity archived = new ArchivedOrderEntity();
+        archived.setId(ORDER_ID);
+        archived.setOrderStatus(OrderStatus.COMPLETED);
+        archived.setCustomer(customerEntity);
+        responseDto.setOrderStatus(OrderStatus.COMPLETED);
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findByIdWithCustomerAndProducts(ORDER_ID)).thenReturn(Optional.of(archived));
+        when(orderMapper.toArchivedResponseDto(archived)).thenReturn(responseDto);
+
+        // when
+        OrderResponseDto result = orderService.getOrderById(ORDER_ID);
+
+        // then
+        assertThat(result.getId()).isEqualTo(ORDER_ID);
+        assertThat(result.getOrderStatus()).isEqualTo(OrderStatus.COMPLETED);
+
+        verify(orderRepository).findById(ORDER_ID);
+        verify(archivedOrderRepository).findByIdWithCustomerAndProducts(ORDER_ID);
+        verify(orderMapper).toArchivedResponseDto(archived);
+        verifyNoMoreInteractions(orderRepository, archivedOrderRepository, orderMapper);
+    }
+
     @Test
     @DisplayName("removeOrder: удаляет заказ и возвращает id удаленного заказа")
     void removeOrder_whenOrderExists_removeAndReturnId() {
         // given
-        OrderEntity orderEntity = new OrderEntity();
-        orderEntity.setId(2L);
-
-        when(orderRepository.findById(2L)).thenReturn(Optional.of(orderEntity));
+        when(orderRepository.findVersionById(2L)).thenReturn(Optional.of(3L));
+        when(orderRepository.deleteByIdAndVersion(2L, 3L)).thenReturn(1);
 
         // when
-        Long id = orderService.removeOrder(2L);
+        Long id = orderService.removeOrder(2L, null);
 
         // then
         assertThat(id).isEqualTo(2L);
 
-        verify(orderRepository).findById(2L);
-        verify(orderRepository).delete(orderEntity);
-        verify(orderRepository, never()).deleteById(anyLong());
-        verifyNoMoreInteractions(orderRepository);
+        verify(orderRepository).findVersionById(2L);
+        verify(orderRepository).detachAllProducts(2L);
+        verify(orderRepository).deleteByIdAndVersion(2L, 3L);
+        verify(orderRepository, never()).findById(anyLong());
+        verify(orderTotalsService).removeOrder(2L);
+        verify(auditLog).record("Order", 2L, AuditAction.DELETE, List.of());
+        verifyNoMoreInteractions(orderRepository, orderTotalsService, auditLog);
         verifyNoInteractions(orderMapper,  customerRepository, productRepository);
     }
 
@@ -392,27 +573,59 @@ class OrderServiceTest {
     @DisplayName("removeOrder: должен выбросить исключение, если заказа нет")
     void removeOrder_whenOrderDoesNotExist_throwsException() {
         // given
-        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.empty());
+        when(orderRepository.findVersionById(ORDER_ID)).thenReturn(Optional.empty());
 
         // when and then
-        assertThatThrownBy(() -> orderService.removeOrder(ORDER_ID))
+        assertThatThrownBy(() -> orderService.removeOrder(ORDER_ID, null))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Заказ с id: " + ORDER_ID + " не найден");
 
-        verify(orderRepository).findById(ORDER_ID);
-        verify(orderRepository, never()).delete(any(OrderEntity.class));
-        verify(orderRepository, never()).deleteById(anyLong());
+        verify(orderRepository).findVersionById(ORDER_ID);
+        verify(orderRepository, never()).detachAllProducts(anyLong());
+        verify(orderRepository, never()).deleteByIdAndVersion(anyLong(), anyLong());
         verifyNoMoreInteractions(orderRepository);
         verifyNoInteractions(orderMapper, customerRepository, productRepository);
     }
 
+    @Test
+    @DisplayName("removeOrder: заказ изменен параллельно без If-Match - конфликт 409, итоги и аудит не трогаются")
+    void removeOrder_whenVersionChangedConcurrently_throwsConflict() {
+        // given
+        when(orderRepository.findVersionById(ORDER_ID)).thenReturn(Optional.of(3L));
+        when(orderRepository.deleteByIdAndVersion(ORDER_ID, 3L)).thenReturn(0);
+
+        // when and then
+        assertThatThrownBy(() -> orderService.removeOrder(ORDER_ID, null))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        verify(orderRepository).deleteByIdAndVersion(ORDER_ID, 3L);
+        verifyNoInteractions(orderTotalsService, auditLog);
+    }
+
+    @Test
+    @DisplayName("removeOrder: заказ изменен параллельно после проверки If-Match - 412")
+    void removeOrder_whenVersionChangedAfterIfMatch_throwsPreconditionFailed() {
+        // given
+        when(orderRepository.findVersionById(ORDER_ID)).thenReturn(Optional.of(3L));
+        when(orderRepository.findVersionTag(ORDER_ID)).thenReturn(Optional.of("3.1.0.0"));
+        when(orderRepository.deleteByIdAndVersion(ORDER_ID, 3L)).thenReturn(0);
+
+        // when and then
+        assertThatThrownBy(() -> orderService.removeOrder(ORDER_ID, "\"3.1.0.0\""))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessageContaining("Заказ с id: " + ORDER_ID + " был изменен");
+
+        verifyNoInteractions(orderTotalsService, auditLog);
+    }
+
     @Test
     @DisplayName("removeProductInOrder: удаляет товар и возвращает актуальный список товаров заказа")
     void removeProductInOrder_whenProductInOrderExists_deleteAndReturnResponse() {
         // given
         ProductEntity otherEntity = new ProductEntity();
         otherEntity.setId(222L);
-        orderEntity.getProducts().addAll(List.of(productEntity, otherEntity));
+        orderEntity.addProduct(productEntity);
+        orderEntity.addProduct(otherEntity);
 
         when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(orderEntity));
         when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.of(productEntity));
@@ -447,6 +660,7 @@ class OrderServiceTest {
 
 
         verify(orderMapper).toProductResponseDtoList(List.of(otherEntity));
+        verify(orderTotalsService).refreshOrders(List.of(ORDER_ID));
         verify(orderRepository, never()).deleteById(anyLong());
         verify(productRepository, never()).save(any(ProductEntity.class));
         verify(productRepository, never()).delete(any(ProductEntity.class));
@@ -520,7 +734,7 @@ class OrderServiceTest {
         when(orderMapper.toResponseDto(savedEntity)).thenReturn(dtoSaved);
 
         // when
-        OrderResponseDto result = orderService.updateOrder(ORDER_ID, requestDto(OrderStatus.PROCESSING));
+        OrderResponseDto result = orderService.updateOrder(ORDER_ID, requestDto(OrderStatus.PROCESSING), null);
 
         // then
         ArgumentCaptor<OrderEntity> captor = ArgumentCaptor.forClass(OrderEntity.class);
@@ -531,7 +745,8 @@ class OrderServiceTest {
 
         verify(orderRepository).findById(ORDER_ID);
         verify(orderMapper).toResponseDto(savedEntity);
-        verifyNoMoreInteractions(orderRepository, orderMapper);
+        verify(orderTotalsService).refreshOrders(List.of(ORDER_ID));
+        verifyNoMoreInteractions(orderRepository, orderMapper, orderTotalsService);
         verifyNoInteractions(productRepository, customerRepository);
     }
 
@@ -542,7 +757,7 @@ class OrderServiceTest {
         when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.empty());
 
         // when and then
-        assertThatThrownBy(() -> orderService.updateOrder(ORDER_ID, requestDto(OrderStatus.PROCESSING)))
+        assertThatThrownBy(() -> orderService.updateOrder(ORDER_ID, requestDto(OrderStatus.PROCESSING), null))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Заказ с id: " + ORDER_ID + " не найден");
 
@@ -553,6 +768,26 @@ class OrderServiceTest {
         verifyNoInteractions(orderMapper, productRepository, customerRepository);
     }
 
+    @Test
+    @DisplayName("updateOrder: бросает PreconditionFailedException, если If-Match не совпадает с текущим ETag")
+    void updateOrder_whenIfMatchIsStale_throwsPreconditionFailed() {
+        // given
+        orderEntity.setOrderStatus(OrderStatus.NEW);
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(orderEntity));
+        when(orderRepository.findVersionTag(ORDER_ID)).thenReturn(Optional.of("2.0.0"));
+
+        // when and then
+        assertThatThrownBy(() -> orderService.updateOrder(ORDER_ID, requestDto(OrderStatus.PROCESSING), "\"1.0.0\""))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessageContaining("Заказ с id: " + ORDER_ID + " был изменен");
+
+        assertThat(orderEntity.getOrderStatus()).isEqualTo(OrderStatus.NEW);
+        verify(orderRepository).findById(ORDER_ID);
+        verify(orderRepository).findVersionTag(ORDER_ID);
+        verifyNoMoreInteractions(orderRepository);
+        verifyNoInteractions(orderMapper, auditLog);
+    }
+
     @Test
     @DisplayName("updateOrder: не обновляет заказ, если статус заказа = null, и маппится исходный заказ")
     void updateOrder_whenStatusIsNull_noSave() {
@@ -569,7 +804,7 @@ class OrderServiceTest {
         requestDto.setOrderStatus(null);
 
         // when
-        OrderResponseDto result = orderService.updateOrder(ORDER_ID, requestDto);
+        OrderResponseDto result = orderService.updateOrder(ORDER_ID, requestDto, null);
 
         // then
         assertThat(result.getOrderStatus()).isEqualTo(OrderStatus.NEW);
@@ -595,7 +830,7 @@ class OrderServiceTest {
         when(orderMapper.toResponseDto(orderEntity)).thenReturn(currentEntity);
 
         // when
-        OrderResponseDto result = orderService.updateOrder(ORDER_ID, requestDto(OrderStatus.PROCESSING));
+        OrderResponseDto result = orderService.updateOrder(ORDER_ID, requestDto(OrderStatus.PROCESSING), null);
 
         // then
         assertThat(result.getOrderStatus()).isEqualTo(OrderStatus.PROCESSING);
@@ -607,4 +842,195 @@ class OrderServiceTest {
         verifyNoMoreInteractions(orderRepository, orderMapper);
         verifyNoInteractions(productRepository, customerRepository);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("updateOrder: выбрасывает BadRequestException при недопустимом переходе статуса")
+    void updateOrder_whenTransitionNotAllowed_throwsBadRequest() {
+        // given
+        orderEntity.setOrderStatus(OrderStatus.COMPLETED);
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(orderEntity));
+
+        // when + then
+        assertThatThrownBy(() -> orderService.updateOrder(ORDER_ID, requestDto(OrderStatus.NEW), null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("COMPLETED -> NEW");
+
+        assertThat(orderEntity.getOrderStatus()).isEqualTo(OrderStatus.COMPLETED);
+        verify(orderRepository).findById(ORDER_ID);
+        verifyNoMoreInteractions(orderRepository);
+        verifyNoInteractions(orderMapper, auditLog);
+    }
+
+    @Test
+    @DisplayName("transitionOrders: меняет статус UPDATE по id найденных заказов и пересчитывает их итоги")
+    void transitionOrders_whenTransitionAllowed_updatesByFilter() {
+        // given
+        OrderStatusTransitionRequestDto request = new OrderStatusTransitionRequestDto();
+        request.setFrom(OrderStatus.PROCESSING);
+        request.setTo(OrderStatus.CANCELED);
+        when(orderRepository.findIdSlice(any(FilterQuery.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(1L, 2L, 3L)));
+        when(orderRepository.updateAll(any(FilterQuery.class), eq(Map.of("orderStatus", OrderStatus.CANCELED))))
+                .thenReturn(3);
+
+        // when
+        OrderStatusTransitionResultDto result = orderService.transitionOrders(request);
+
+        // then
+        assertThat(result.updated()).isEqualTo(3);
+        ArgumentCaptor<FilterQuery<OrderEntity>> captor = ArgumentCaptor.forClass(FilterQuery.class);
+        verify(orderRepository).updateAll(captor.capture(), eq(Map.of("orderStatus", OrderStatus.CANCELED)));
+        assertThat(captor.getValue().getParameters())
+                .containsEntry("orderStatus", OrderStatus.PROCESSING)
+                .containsEntry("ids", List.of(1L, 2L, 3L));
+        verify(orderRepository).findIdSlice(any(FilterQuery.class), any(Pageable.class));
+        verify(orderTotalsService).refreshOrders(List.of(1L, 2L, 3L));
+        verify(auditLog).recordAll("Order", List.of(1L, 2L, 3L), AuditAction.UPDATE, List.of("orderStatus"));
+        verifyNoMoreInteractions(orderRepository, orderTotalsService, auditLog);
+    }
+
+    @Test
+    @DisplayName("transitionOrders: если часть заказов изменили параллельно, аудит пишется только по перешедшим")
+    void transitionOrders_whenChunkPartiallyUpdated_auditsTransitionedIdsOnly() {
+        // given
+        OrderStatusTransitionRequestDto request = new OrderStatusTransitionRequestDto();
+        request.setFrom(OrderStatus.NEW);
+        request.setTo(OrderStatus.PROCESSING);
+        when(orderRepository.findIdSlice(any(FilterQuery.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(1L, 2L, 3L)))
+                .thenReturn(new SliceImpl<>(List.of(1L, 3L)));
+        when(orderRepository.updateAll(any(FilterQuery.class), eq(Map.of("orderStatus", OrderStatus.PROCESSING))))
+                .thenReturn(2);
+
+        // when
+        OrderStatusTransitionResultDto result = orderService.transitionOrders(request);
+
+        // then
+        assertThat(result.updated()).isEqualTo(2);
+        ArgumentCaptor<FilterQuery<OrderEntity>> captor = ArgumentCaptor.forClass(FilterQuery.class);
+        verify(orderRepository, times(2)).findIdSlice(captor.capture(), any(Pageable.class));
+        assertThat(captor.getAllValues().get(1).getParameters())
+                .containsEntry("orderStatus", OrderStatus.PROCESSING)
+                .containsEntry("ids", List.of(1L, 2L, 3L));
+        verify(auditLog).recordAll("Order", List.of(1L, 3L), AuditAction.UPDATE, List.of("orderStatus"));
+        verifyNoMoreInteractions(auditLog);
+    }
+
+    @Test
+    @DisplayName("transitionOrders: выбрасывает BadRequestException и не обновляет заказы при недопустимом переходе")
+    void transitionOrders_whenTransitionNotAllowed_throwsBadRequest() {
+        // given
+        OrderStatusTransitionRequestDto request = new OrderStatusTransitionRequestDto();
+        request.setFrom(OrderStatus.CANCELED);
+        request.setTo(OrderStatus.PROCESSING);
+
+        // when + then
+        assertThatThrownBy(() -> orderService.transitionOrders(request))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("CANCELED -> PROCESSING");
+
+        verifyNoInteractions(orderRepository, auditLog);
+    }
+
+    @Test
+    @DisplayName("replaceOrderProducts: добавляет и удаляет только отличающиеся товары")
+    void replaceOrderProducts_whenSetDiffers_applyDiffOnly() {
+        // given
+        when(orderRepository.existsById(ORDER_ID)).thenReturn(true);
+        when(productRepository.findExistingIds(Set.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(orderRepository.findProductIds(ORDER_ID)).thenReturn(List.of(2L, 3L));
+        when(orderRepository.findAllWithCustomerAndProductsByIdIn(List.of(ORDER_ID))).thenReturn(List.of(orderEntity));
+        when(orderMapper.toResponseDto(orderEntity)).thenReturn(responseDto);
+
+        // when
+        OrderResponseDto result = orderService.replaceOrderProducts(ORDER_ID, Set.of(1L, 2L));
+
+        // then
+        assertThat(result).isSameAs(responseDto);
+        verify(orderRepository).existsById(ORDER_ID);
+        verify(orderRepository).findProductIds(ORDER_ID);
+        verify(orderRepository).detachProducts(ORDER_ID, Set.of(3L));
+        verify(orderRepository).attachProducts(ORDER_ID, Set.of(1L));
+        verify(orderRepository).incrementVersion(ORDER_ID);
+        verify(orderRepository).findAllWithCustomerAndProductsByIdIn(List.of(ORDER_ID));
+        verify(productRepository).findExistingIds(Set.of(1L, 2L));
+        verify(orderMapper).toResponseDto(orderEntity);
+        verify(orderTotalsService).refreshOrders(List.of(ORDER_ID));
+        verifyNoMoreInteractions(orderRepository, productRepository, orderMapper, orderTotalsService);
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    @DisplayName("replaceOrderLines: удаляет лишние позиции и пакетно обновляет количество остальных")
+    void replaceOrderLines_whenLinesDiffer_detachAndUpsert() {
+        // given
+        when(orderRepository.existsById(ORDER_ID)).thenReturn(true);
+        when(productRepository.findExistingIds(Set.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(orderRepository.findProductIds(ORDER_ID)).thenReturn(List.of(2L, 3L));
+        when(orderRepository.detachProducts(ORDER_ID, Set.of(3L))).thenReturn(1);
+        when(orderRepository.upsertLines(ORDER_ID, Map.of(1L, 5, 2L, 1))).thenReturn(1);
+        when(orderRepository.findAllWithCustomerAndProductsByIdIn(List.of(ORDER_ID))).thenReturn(List.of(orderEntity));
+        when(orderMapper.toResponseDto(orderEntity)).thenReturn(responseDto);
+
+        // when
+        OrderResponseDto result = orderService.replaceOrderLines(ORDER_ID,
+                List.of(line(1L, 3), line(2L, 1), line(1L, 2)));
+
+        // then
+        assertThat(result).isSameAs(responseDto);
+        verify(orderRepository).existsById(ORDER_ID);
+        verify(orderRepository).findProductIds(ORDER_ID);
+        verify(orderRepository).detachProducts(ORDER_ID, Set.of(3L));
+        verify(orderRepository).upsertLines(ORDER_ID, Map.of(1L, 5, 2L, 1));
+        verify(orderRepository).incrementVersion(ORDER_ID);
+        verify(orderRepository).findAllWithCustomerAndProductsByIdIn(List.of(ORDER_ID));
+        verify(productRepository).findExistingIds(Set.of(1L, 2L));
+        verify(orderTotalsService).refreshOrders(List.of(ORDER_ID));
+        verify(auditLog).record("Order", ORDER_ID, AuditAction.UPDATE, List.of("products"));
+        verifyNoMoreInteractions(orderRepository, productRepository, orderTotalsService, auditLog);
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    @DisplayName("replaceOrderProducts: выбрасывает ResourceNotFoundException, если товар не найден")
+    void replaceOrderProducts_whenProductNotFound_throwNotFound() {
+        // given
+        when(orderRepository.existsById(ORDER_ID)).thenReturn(true);
+        when(productRepository.findExistingIds(Set.of(1L, 2L))).thenReturn(List.of(1L));
+
+        // when + then
+        assertThatThrownBy(() -> orderService.replaceOrderProducts(ORDER_ID, Set.of(1L, 2L)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Товары с id: [2] не найдены");
+
+        verify(orderRepository).existsById(ORDER_ID);
+        verify(productRepository).findExistingIds(Set.of(1L, 2L));
+        verifyNoMoreInteractions(orderRepository, productRepository);
+        verifyNoInteractions(orderMapper, customerRepository);
+    }
+
+    @Test
+    @DisplayName("exportOrders: стримит только id и догружает заказы с клиентами одним запросом на пачку")
+    void exportOrders_streamsIdsAndLoadsChunkWithCustomers() {
+        // given
+        OrderEntity second = order(22L, OrderStatus.NEW, customerEntity, LocalDateTime.of(2025, 1, 2, 10, 0));
+        OrderResponseDto secondDto = new OrderResponseDto();
+        secondDto.setId(22L);
+        when(orderRepository.streamIds(any(), eq(Sort.by("id")), anyInt())).thenReturn(Stream.of(ORDER_ID, 22L));
+        when(orderRepository.findAllWithCustomerAndProductsByIdIn(List.of(ORDER_ID, 22L)))
+                .thenReturn(List.of(second, orderEntity));
+        when(orderMapper.toResponseDto(orderEntity)).thenReturn(responseDto);
+        when(orderMapper.toResponseDto(second)).thenReturn(secondDto);
+        List<OrderResponseDto> exported = new ArrayList<>();
+
+        // when
+        long count = orderService.exportOrders(null, OrderStatus.NEW, null, exported::add);
+
+        // then
+        assertThat(count).isEqualTo(2);
+        assertThat(exported).containsExactly(responseDto, secondDto);
+        verify(orderRepository).findAllWithCustomerAndProductsByIdIn(List.of(ORDER_ID, 22L));
+        verify(entityManager).clear();
+        verifyNoInteractions(customerRepository);
+    }
+}
@@ -0,0 +1,208 @@
+package com.project.employee.service;
+
+import com.project.employee.dto.CustomerStatsDto;
+import com.project.employee.dto.OrderRequestDto;
+import com.project.employee.dto.OrderStatusTransitionRequestDto;
+import com.project.employee.entity.CustomerEntity;
+import com.project.employee.entity.ProductEntity;
+import com.project.employee.enums.OrderStatus;
+import com.project.employee.repository.CustomerRepository;
+import com.project.employee.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class OrderTotalsServiceIT {
+
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 10;
+    private static final BigDecimal PRICE = new BigDecimal("100.00");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:mem:order-totals;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+        registry.add("spring.flyway.enabled", () -> "false");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("app.audit.enabled", () -> "false");
+        registry.add("app.partitions.orders.enabled", () -> "false");
+        registry.add("app.orders.archive.enabled", () -> "false");
+    }
+
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    OrderTotalsService orderTotalsService;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    ProductRepository productRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private Long customerId;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from customer_daily_revenue");
+        jdbcTemplate.update("delete from order_totals");
+        jdbcTemplate.update("delete from order_lines");
+        jdbcTemplate.update("delete from orders");
+        productRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+
+        CustomerEntity customer = new CustomerEntity();
+        customer.setFirstName("Evgeny");
+        customer.setLastName("Lim");
+        customer.setEmail("totals@gmail.com");
+        customer.setPhoneNumber("+79281223443");
+        customerId = customerRepository.save(customer).getId();
+
+        ProductEntity product = new ProductEntity();
+        product.setName("Jelly bear");
+        product.setDescription("yummy and chewy");
+        product.setPrice(PRICE);
+        productId = productRepository.save(product).getId();
+    }
+
+    private Long addOrderWithProduct() {
+        OrderRequestDto dto = new OrderRequestDto();
+        dto.setCustomerId(customerId);
+        dto.setOrderStatus(OrderStatus.NEW);
+        Long orderId = orderService.addOrder(dto).getId();
+        orderService.addProductToOrder(orderId, productId, 1);
+        return orderId;
+    }
+
+    private void cancel(Long orderId) {
+        OrderRequestDto dto = new OrderRequestDto();
+        dto.setOrderStatus(OrderStatus.CANCELED);
+        orderService.updateOrder(orderId, dto, null);
+    }
+
+    private static <T> List<T> runConcurrently(List<Callable<T>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertRevenue(long orders) {
+        CustomerStatsDto stats = orderTotalsService.getCustomerStats(customerId);
+        assertThat(stats.orderCount()).isEqualTo(orders);
+        assertThat(stats.revenue()).isEqualByComparingTo(PRICE.multiply(BigDecimal.valueOf(orders)));
+        assertThat(jdbcTemplate.queryForObject(
+                "select coalesce(sum(total), 0) from order_totals where customer_id = ? and status <> 'CANCELED'",
+                BigDecimal.class, customerId)).isEqualByComparingTo(stats.revenue());
+    }
+
+    @Test
+    @DisplayName("refreshOrders: параллельные заказы одного клиента за один день не теряют выручку")
+    void refreshOrders_whenOrdersCreatedConcurrently_keepsDailyRevenueConsistent() throws Exception {
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            tasks.add(() -> {
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    addOrderWithProduct();
+                }
+                return ORDERS_PER_THREAD;
+            });
+        }
+
+        runConcurrently(tasks);
+
+        assertRevenue(THREADS * ORDERS_PER_THREAD);
+    }
+
+    @Test
+    @DisplayName("refreshOrders: отмена заказов параллельно с созданием новых исключает отмененные из выручки")
+    void refreshOrders_whenOrdersCanceledConcurrently_excludesCanceledFromRevenue() throws Exception {
+        List<Long> existing = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < THREADS * ORDERS_PER_THREAD / 2; i++) {
+            existing.add(addOrderWithProduct());
+        }
+        assertRevenue(existing.size());
+
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        int perThread = existing.size() / (THREADS / 2);
+        for (int t = 0; t < THREADS / 2; t++) {
+            List<Long> toCancel = List.copyOf(existing.subList(t * perThread, (t + 1) * perThread));
+            tasks.add(() -> {
+                toCancel.forEach(this::cancel);
+                return toCancel.size();
+            });
+            tasks.add(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    addOrderWithProduct();
+                }
+                return perThread;
+            });
+        }
+
+        runConcurrently(tasks);
+
+        assertRevenue(existing.size());
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from order_totals where status = 'CANCELED'", Long.class))
+                .isEqualTo(existing.size());
+    }
+
+    @Test
+    @DisplayName("transitionOrders: пакетная отмена пересчитывает итоги и убирает заказы из выручки")
+    void transitionOrders_whenCanceled_removesOrdersFromRevenue() {
+        for (int i = 0; i < 5; i++) {
+            addOrderWithProduct();
+        }
+        assertRevenue(5);
+
+        OrderStatusTransitionRequestDto request = new OrderStatusTransitionRequestDto();
+        request.setFrom(OrderStatus.NEW);
+        request.setTo(OrderStatus.CANCELED);
+        orderService.transitionOrders(request);
+
+        CustomerStatsDto stats = orderTotalsService.getCustomerStats(customerId);
+        assertThat(stats.orderCount()).isZero();
+        assertThat(stats.revenue()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from customer_daily_revenue", Long.class)).isZero();
+    }
+}
@@ -0,0 +1,128 @@
+package com.project.employee.service;
+
+import com.project.employee.dto.CustomerStatsDto;
+import com.project.employee.dto.OrderRequestDto;
+import com.project.employee.entity.CustomerEntity;
+import com.project.employee.entity.ProductEntity;
+import com.project.employee.enums.OrderStatus;
+import com.project.employee.repository.CustomerRepository;
+import com.project.employee.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class OrderTotalsServicePostgresIT {
+
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 10;
+    private static final BigDecimal PRICE = new BigDecimal("100.00");
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("app.audit.enabled", () -> "false");
+        registry.add("app.orders.archive.enabled", () -> "false");
+    }
+
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    OrderTotalsService orderTotalsService;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    ProductRepository productRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private Long customerId;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from customer_daily_revenue");
+        jdbcTemplate.update("delete from order_totals");
+        jdbcTemplate.update("delete from order_lines");
+        jdbcTemplate.update("delete from orders");
+        productRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+
+        CustomerEntity customer = new CustomerEntity();
+        customer.setFirstName("Evgeny");
+        customer.setLastName("Lim");
+        customer.setEmail("totals@gmail.com");
+        customer.setPhoneNumber("+79281223443");
+        customerId = customerRepository.save(customer).getId();
+
+        ProductEntity product = new ProductEntity();
+        product.setName("Jelly bear");
+        product.setDescription("yummy and chewy");
+        product.setPrice(PRICE);
+        productId = productRepository.save(product).getId();
+    }
+
+    @Test
+    @DisplayName("addOrder: параллельное создание заказов одного клиента в PostgreSQL не приводит к deadlock")
+    void addOrder_whenCreatedConcurrentlyForOneCustomer_doesNotDeadlock() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                        OrderRequestDto dto = new OrderRequestDto();
+                        dto.setCustomerId(customerId);
+                        dto.setOrderStatus(OrderStatus.NEW);
+                        Long orderId = orderService.addOrder(dto).getId();
+                        orderService.addProductToOrder(orderId, productId, 1);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long orders = THREADS * ORDERS_PER_THREAD;
+        CustomerStatsDto stats = orderTotalsService.getCustomerStats(customerId);
+        assertThat(stats.orderCount()).isEqualTo(orders);
+        assertThat(stats.revenue()).isEqualByComparingTo(PRICE.multiply(BigDecimal.valueOf(orders)));
+    }
+}
@@ -0,0 +1,198 @@
+package com.project.employee.service;
+
+import com.project.employee.dto.OrderRequestDto;
+import com.project.employee.entity.CustomerEntity;
+import com.project.employee.entity.ProductEntity;
+import com.project.employee.enums.OrderStatus;
+import com.project.employee.exception.PreconditionFailedException;
+import com.project.employee.repository.CustomerRepository;
+import com.project.employee.repository.OrderRepository;
+import com.project.employee.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class RemovalGuardsIT {
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:mem:removal-guards;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+        registry.add("spring.flyway.enabled", () -> "false");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("app.audit.enabled", () -> "false");
+        registry.add("app.partitions.orders.enabled", () -> "false");
+        registry.add("app.orders.archive.enabled", () -> "false");
+    }
+
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    CustomerService customerService;
+    @Autowired
+    ProductService productService;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    ProductRepository productRepository;
+    @Autowired
+    OrderRepository orderRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private Long customerId;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from customer_daily_revenue");
+        jdbcTemplate.update("delete from order_totals");
+        jdbcTemplate.update("delete from order_lines_archive");
+        jdbcTemplate.update("delete from orders_archive");
+        jdbcTemplate.update("delete from order_lines");
+        jdbcTemplate.update("delete from orders");
+        productRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+
+        customerId = addCustomer("+79281223443");
+        ProductEntity product = new ProductEntity();
+        product.setName("Jelly bear");
+        product.setDescription("yummy and chewy");
+        product.setPrice(new BigDecimal("100.00"));
+        productId = productRepository.save(product).getId();
+    }
+
+    private Long addCustomer(String phoneNumber) {
+        CustomerEntity customer = new CustomerEntity();
+        customer.setFirstName("Evgeny");
+        customer.setLastName("Lim");
+        customer.setEmail(phoneNumber.substring(1) + "@gmail.com");
+        customer.setPhoneNumber(phoneNumber);
+        return customerRepository.save(customer).getId();
+    }
+
+    private Long addOrder(Long customerId) {
+        OrderRequestDto dto = new OrderRequestDto();
+        dto.setCustomerId(customerId);
+        dto.setOrderStatus(OrderStatus.NEW);
+        return orderService.addOrder(dto).getId();
+    }
+
+    @Test
+    @DisplayName("removeCustomer: клиента с заказами удалить нельзя, строка остается")
+    void removeCustomer_whenCustomerHasOrders_throwsAndKeepsRow() {
+        addOrder(customerId);
+
+        assertThatThrownBy(() -> customerService.removeCustomer(customerId, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("у него есть заказы");
+
+        assertThat(customerRepository.existsById(customerId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("removeCustomer: заказ в архиве тоже блокирует удаление клиента")
+    void removeCustomer_whenCustomerHasArchivedOrders_throws() {
+        jdbcTemplate.update("insert into orders_archive (id, customer_id, status, created_date, version, archived_at) "
+                + "values (?, ?, 'COMPLETED', ?, 0, ?)", 9_000L, customerId, LocalDateTime.now().minusYears(1),
+                LocalDateTime.now());
+
+        assertThatThrownBy(() -> customerService.removeCustomer(customerId, null))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(customerRepository.existsById(customerId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("removeCustomer: клиент без заказов удаляется, устаревший If-Match дает 412")
+    void removeCustomer_whenNoOrders_deletesWithVersionCheck() {
+        Long other = addCustomer("+79281223444");
+        addOrder(other);
+
+        assertThatThrownBy(() -> customerService.removeCustomer(customerId, "\"999\""))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThat(customerRepository.existsById(customerId)).isTrue();
+
+        assertThat(customerService.removeCustomer(customerId, customerService.getCustomerETag(customerId)))
+                .isEqualTo(customerId);
+        assertThat(customerRepository.existsById(customerId)).isFalse();
+        assertThat(customerRepository.existsById(other)).isTrue();
+    }
+
+    @Test
+    @DisplayName("removeProductById: товар из нескольких заказов удалить нельзя")
+    void removeProductById_whenReferencedByManyOrders_throwsAndKeepsRow() {
+        for (int i = 0; i < 5; i++) {
+            orderService.addProductToOrder(addOrder(customerId), productId, i + 1);
+        }
+
+        assertThatThrownBy(() -> productService.removeProductById(productId, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("связан с заказом");
+
+        assertThat(productRepository.existsById(productId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("removeProductById: товар только из архивного заказа удалить нельзя")
+    void removeProductById_whenReferencedByArchivedOrder_throws() {
+        jdbcTemplate.update("insert into orders_archive (id, customer_id, status, created_date, version, archived_at) "
+                + "values (?, ?, 'COMPLETED', ?, 0, ?)", 9_001L, customerId, LocalDateTime.now().minusYears(1),
+                LocalDateTime.now());
+        jdbcTemplate.update("insert into order_lines_archive (order_id, product_id, quantity, unit_price) "
+                + "values (?, ?, 1, 100.00)", 9_001L, productId);
+
+        assertThatThrownBy(() -> productService.removeProductById(productId, null))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(productRepository.existsById(productId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("removeProductById: товар без заказов удаляется по актуальному If-Match")
+    void removeProductById_whenNotReferenced_deletes() {
+        String eTag = productService.getProductETag(productId);
+
+        assertThat(productService.removeProductById(productId, eTag)).isEqualTo(productId);
+
+        assertThat(productRepository.existsById(productId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("deleteByIdAndVersion: удаление с устаревшей версией не затрагивает строки")
+    void deleteByIdAndVersion_whenVersionStale_deletesNothing() {
+        Long orderId = addOrder(customerId);
+        Long orderVersion = orderRepository.findVersionById(orderId).orElseThrow();
+        Long customerVersion = customerRepository.findVersionById(customerId).orElseThrow();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(orderRepository.deleteByIdAndVersion(orderId, orderVersion + 1)).isZero();
+            assertThat(customerRepository.deleteByIdAndVersion(customerId, customerVersion + 1)).isZero();
+        });
+        assertThat(orderRepository.existsById(orderId)).isTrue();
+        assertThat(customerRepository.existsById(customerId)).isTrue();
+
+        assertThat(orderService.removeOrder(orderId, orderService.getOrderETag(orderId))).isEqualTo(orderId);
+        assertThat(orderRepository.existsById(orderId)).isFalse();
+    }
+}
@@ -0,0 +1,49 @@
+package com.project.employee.utility;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ETagsTest {
+
+    private static final String CURRENT = ETags.of(3L);
+
+    @Test
+    @DisplayName("of: версия оборачивается в кавычки сильного ETag")
+    void of_quotesVersion() {
+        assertThat(ETags.of(3L)).isEqualTo("\"3\"");
+        assertThat(ETags.of("archived.2")).isEqualTo("\"archived.2\"");
+    }
+
+    @Test
+    @DisplayName("matches: отсутствующий If-Match не ограничивает запрос")
+    void matches_whenHeaderMissing_returnsTrue() {
+        assertThat(ETags.matches(null, CURRENT)).isTrue();
+        assertThat(ETags.matches("  ", CURRENT)).isTrue();
+    }
+
+    @Test
+    @DisplayName("matches: сильное сравнение - совпадает только точный ETag или *")
+    void matches_usesStrongComparison() {
+        assertThat(ETags.matches("\"3\"", CURRENT)).isTrue();
+        assertThat(ETags.matches("*", CURRENT)).isTrue();
+        assertThat(ETags.matches("\"2\"", CURRENT)).isFalse();
+        assertThat(ETags.matches("3", CURRENT)).isFalse();
+    }
+
+    @Test
+    @DisplayName("matches: слабый ETag никогда не удовлетворяет If-Match")
+    void matches_whenWeak_returnsFalse() {
+        assertThat(ETags.matches("W/\"3\"", CURRENT)).isFalse();
+        assertThat(ETags.matches("W/\"2\", W/\"3\"", CURRENT)).isFalse();
+    }
+
+    @Test
+    @DisplayName("matches: список ETag совпадает, если совпадает любой сильный элемент")
+    void matches_whenListContainsCurrent_returnsTrue() {
+        assertThat(ETags.matches("\"1\", \"3\"", CURRENT)).isTrue();
+        assertThat(ETags.matches("W/\"3\",\"3\"", CURRENT)).isTrue();
+        assertThat(ETags.matches("\"1\" , \"2\"", CURRENT)).isFalse();
+    }
+}